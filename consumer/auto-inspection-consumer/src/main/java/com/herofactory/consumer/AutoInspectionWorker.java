@@ -1,43 +1,73 @@
 package com.herofactory.consumer;
 
 import com.herofactory.common.Topic;
-import com.herofactory.inspecteditem.dto.InspectedItemDto;
 import com.herofactory.inspecteditem.service.ItemInspectService;
 import com.herofactory.kafka.CustomObjectMapper;
+import com.herofactory.kafka.KeyOrderedBatchProcessor;
 import com.herofactory.kafka.inspecteditem.InspectedItemMessageProduceService;
 import com.herofactory.kafka.item.OriginalItemMessage;
 import com.herofactory.kafka.item.OriginalItemMessageConverter;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import lombok.RequiredArgsConstructor;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
-@RequiredArgsConstructor
 @Component
 public class AutoInspectionWorker {
     private final CustomObjectMapper objectMapper = new CustomObjectMapper();
     private final ItemInspectService itemInspectService;
     private final InspectedItemMessageProduceService inspectedItemMessageProduceService;
+    private final KeyOrderedBatchProcessor batchProcessor;
 
+    public AutoInspectionWorker(
+            ItemInspectService itemInspectService,
+            InspectedItemMessageProduceService inspectedItemMessageProduceService,
+            @Value("${inspection.parallel.max-in-flight:32}") int maxInFlight
+    ) {
+        this.itemInspectService = itemInspectService;
+        this.inspectedItemMessageProduceService = inspectedItemMessageProduceService;
+        this.batchProcessor = new KeyOrderedBatchProcessor(maxInFlight);
+    }
+
+    // 파티션 스레드가 레코드마다 OpenAI 응답을 기다리지 않도록 poll 단위로 받아 key(상품 id) 순서만 지키며 동시에 검수
+    // 실제 호출 속도는 공용 OpenAiRateLimiter 가 제한. 실패가 있으면 가장 앞의 실패 레코드 직전까지만 offset 커밋
     @KafkaListener(
             topics = {Topic.ORIGINAL_TOPIC},
             groupId = "auto-inspection-consumer-group",
-            concurrency = "3"
+            concurrency = "3",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = {"max.poll.records=${inspection.parallel.max-poll-records:100}"}
     )
-    public void listen(ConsumerRecord<String, String> message) throws JsonProcessingException {
-        OriginalItemMessage originalItemMessage = objectMapper.readValue(message.value(), OriginalItemMessage.class);
-        handleCreate(originalItemMessage);
+    public void listen(List<ConsumerRecord<String, String>> messages) throws InterruptedException {
+        KeyOrderedBatchProcessor.Result result = batchProcessor.process(messages, this::handleRecord);
+        if (result.failed()) {
+            throw new BatchListenerFailedException("Auto inspection failed", result.cause(), result.failedIndex());
+        }
     }
 
-    private void handleCreate(OriginalItemMessage originalItemMessage) {
-        InspectedItemDto inspectedItemDto = itemInspectService.inspectAndGetIfValid(
-                OriginalItemMessageConverter.toModel(originalItemMessage)
-        );
-        if (inspectedItemDto == null){
-            return;
+    private CompletableFuture<Void> handleRecord(ConsumerRecord<String, String> message) {
+        OriginalItemMessage originalItemMessage;
+        try {
+            originalItemMessage = objectMapper.readValue(message.value(), OriginalItemMessage.class);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return handleCreate(originalItemMessage);
+    }
 
-        inspectedItemMessageProduceService.sendMessage(inspectedItemDto);
+    // item.inspected 발행이 ack 된 뒤에 완료. 발행에 실패하면 레코드도 실패로 처리해 offset 을 커밋하지 않음
+    private CompletableFuture<Void> handleCreate(OriginalItemMessage originalItemMessage) {
+        return itemInspectService.inspectAndGetIfValidAsync(OriginalItemMessageConverter.toModel(originalItemMessage))
+                .thenCompose(inspectedItemDto -> {
+                    if (inspectedItemDto == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return inspectedItemMessageProduceService.sendMessage(inspectedItemDto)
+                            .thenApply(sendResult -> null);
+                });
     }
 }
@@ -2,12 +2,16 @@ package com.herofactory.consumer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.herofactory.common.Topic;
+import com.herofactory.inspecteditem.dto.InspectedItemDto;
 import com.herofactory.kafka.CustomObjectMapper;
 import com.herofactory.kafka.inspecteditem.InspectedItemMessage;
 import com.herofactory.search.service.ItemSearchService;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
 @RequiredArgsConstructor
@@ -16,17 +20,33 @@ public class ContentIndexingWorker {
     private final CustomObjectMapper objectMapper = new CustomObjectMapper();
     private final ItemSearchService itemSearchService;
 
+    // poll 한 번에 받은 레코드를 _bulk 요청으로 색인 (레코드마다 ES 왕복하지 않음)
     @KafkaListener(
             topics = {Topic.INSPECTED_TOPIC},
             groupId = "indexing-consumer-group",
-            concurrency = "3" // partition 3
+            concurrency = "3", // partition 3
+            containerFactory = "batchKafkaListenerContainerFactory",
+            properties = {"max.poll.records=${indexing.batch.max-poll-records:500}"}
     )
-    public void listen(ConsumerRecord<String, String> message) throws JsonProcessingException {
-        InspectedItemMessage inspectedItemMessage = objectMapper.readValue(message.value(), InspectedItemMessage.class);
-        handleCreate(inspectedItemMessage);
+    public void listen(List<ConsumerRecord<String, String>> messages) {
+        List<InspectedItemDto> items = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                InspectedItemMessage inspectedItemMessage =
+                        objectMapper.readValue(messages.get(i).value(), InspectedItemMessage.class);
+                items.add(inspectedItemMessage.toModel());
+            } catch (JsonProcessingException e) {
+                // 앞의 레코드는 색인한 뒤 실패 위치를 알림 (그 앞까지 offset 커밋, 이 레코드는 에러 핸들러가 처리)
+                handleCreate(items);
+                throw new BatchListenerFailedException("Failed to parse inspected item message", e, i);
+            }
+        }
+        handleCreate(items);
     }
 
-    private void handleCreate(InspectedItemMessage inspectedItemMessage) {
-        itemSearchService.indexItem(inspectedItemMessage.toModel());
+    private void handleCreate(List<InspectedItemDto> inspectedItems) {
+        if (!inspectedItems.isEmpty()) {
+            itemSearchService.bulkIndexItems(inspectedItems);
+        }
     }
 }
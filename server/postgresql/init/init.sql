@@ -7,6 +7,7 @@ DROP TABLE IF EXISTS message_logs CASCADE;
 DROP TABLE IF EXISTS payment_logs CASCADE;
 DROP TABLE IF EXISTS payments CASCADE;
 DROP TABLE IF EXISTS prompts CASCADE;
+DROP TABLE IF EXISTS outbox_events CASCADE;
 
 -- Create prompts table with vector column
 CREATE TABLE prompts (
@@ -79,6 +80,22 @@ CREATE TABLE message_logs (
                               updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Create outbox table (API 트랜잭션에서 기록, OutboxRelay 가 발행 후 삭제)
+CREATE TABLE outbox_events (
+                               id BIGSERIAL PRIMARY KEY,
+                               destination VARCHAR(20) NOT NULL,      -- RABBITMQ | KAFKA
+                               target VARCHAR(255) NOT NULL,          -- exchange 또는 topic
+                               routing_key VARCHAR(255),              -- routing key 또는 record key
+                               message_id VARCHAR(255) NOT NULL,
+                               aggregate_type VARCHAR(50) NOT NULL,
+                               aggregate_id VARCHAR(255),
+                               payload TEXT NOT NULL,
+                               attempts INTEGER NOT NULL DEFAULT 0,
+                               last_error TEXT,
+                               available_at TIMESTAMP NOT NULL,
+                               created_at TIMESTAMP NOT NULL
+);
+
 -- Create subscription_payments table
 CREATE TABLE subscription_payments (
                                        id BIGSERIAL PRIMARY KEY,
@@ -110,8 +127,11 @@ CREATE INDEX idx_payment_logs_payment_id_created_at ON payment_logs(payment_id,
 CREATE INDEX idx_subscription_payments_subscription ON subscription_payments(subscription_id);
 CREATE INDEX idx_subscription_payments_payment ON subscription_payments(payment_id);
 CREATE INDEX idx_subscription_payments_status ON subscription_payments(status);
+CREATE INDEX idx_outbox_events_available ON outbox_events(available_at, id);
+CREATE INDEX idx_outbox_events_aggregate ON outbox_events(aggregate_type, aggregate_id, id);
 
 -- Create vector similarity search index
+-- findSimilarPrompts 는 코사인 거리(<=>)를 사용하므로 vector_cosine_ops 로 생성
 CREATE INDEX prompt_vector_idx ON prompts
-    USING ivfflat (embedding_vector vector_l2_ops)
-WITH (lists = 100);
\ No newline at end of file
+    USING hnsw (embedding_vector vector_cosine_ops)
+WITH (m = 16, ef_construction = 64);
\ No newline at end of file
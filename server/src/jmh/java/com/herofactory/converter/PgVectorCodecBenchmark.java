@@ -0,0 +1,84 @@
+package com.herofactory.converter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 기존 텍스트 경로(String.format + split/parseDouble)와 바이너리 float4 코덱 비교
+// 실행: ./gradlew :server:jmh -Pjmh.includes=PgVectorCodecBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PgVectorCodecBenchmark {
+    private static final int DIMENSION = 1536;
+
+    private double[] vector;
+    private float[] floatVector;
+    private String legacyText;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vector = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = random.nextGaussian() * 0.05;
+        }
+        floatVector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            floatVector[i] = (float) vector[i];
+        }
+        legacyText = legacyVectorToString(vector);
+        binary = new PgVector(floatVector).toBytes();
+    }
+
+    @Benchmark
+    public String encodeLegacyText() {
+        return legacyVectorToString(vector);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return new PgVector(floatVector).toBytes();
+    }
+
+    @Benchmark
+    public double[] decodeLegacyText() {
+        String vectorStr = legacyText.replaceAll("[\\[\\]{}]", "");
+        String[] values = vectorStr.split(",");
+        double[] parsed = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            parsed[i] = Double.parseDouble(values[i].trim());
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public float[] decodeText() {
+        return PgVector.parse(legacyText);
+    }
+
+    @Benchmark
+    public float[] decodeBinary() throws Exception {
+        PgVector decoded = new PgVector();
+        decoded.setByteValue(binary, 0);
+        return decoded.toArray();
+    }
+
+    private static String legacyVectorToString(double[] vector) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(String.format("%.8f", vector[i]));
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.herofactory.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.herofactory.payment.dto.PaymentMessage;
+import com.herofactory.payment.entity.enums.PaymentStatus;
+import com.herofactory.prompt.dto.PromptMessage;
+import com.herofactory.prompt.entity.enums.PromptStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// 소비자의 메시지 본문 역직렬화 비교: new String(body) 후 파싱 / byte[] 직접 파싱 / 캐시된 ObjectReader
+// 본문은 실제 큐에 실리는 크기 그대로 (prompt: PromptProducer 가 보내는 약 300 바이트, payment: PaymentProducer 본문)
+// 실행: ./gradlew :server:jmh -Pjmh.includes=MessageDeserializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageDeserializationBenchmark {
+
+    @Param({"prompt", "payment"})
+    private String message;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Class<?> type;
+    private ObjectReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws Exception {
+        Object value = switch (message) {
+            case "prompt" -> PromptMessage.builder()
+                    .promptId("2b4f7c1e-8d3a-4f6b-9c2e-1a5d7e9f0b3c")
+                    .memberId("member-1024")
+                    .originalPrompt("중세 판타지 배경의 기사 캐릭터를 그려줘. 성 앞에 서 있고 갑옷은 은색, "
+                            + "망토는 붉은색, 극적인 조명과 함께 웅장한 분위기로")
+                    .status(PromptStatus.PENDING)
+                    .build();
+            case "payment" -> PaymentMessage.builder()
+                    .paymentId("7c9e6679-7425-40de-944b-e07fc1f90ae7")
+                    .shopItemId(1024L)
+                    .memberId("member-1024")
+                    .amount(15_000L)
+                    .status(PaymentStatus.COMPLETED)
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown message: " + message);
+        };
+        type = value.getClass();
+        body = objectMapper.writeValueAsBytes(value);
+        reader = objectMapper.readerFor(type);
+    }
+
+    @Benchmark
+    public Object stringThenParse() throws Exception {
+        return objectMapper.readValue(new String(body), type);
+    }
+
+    @Benchmark
+    public Object parseBytes() throws Exception {
+        return objectMapper.readValue(body, type);
+    }
+
+    @Benchmark
+    public Object cachedReader() throws Exception {
+        return reader.readValue(body);
+    }
+}
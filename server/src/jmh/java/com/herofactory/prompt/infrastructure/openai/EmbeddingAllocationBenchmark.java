@@ -0,0 +1,53 @@
+package com.herofactory.prompt.infrastructure.openai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 임베딩 응답 -> double[] (기존) / float[] (현재) 변환 비용과 할당량 비교
+// gc 프로파일러의 gc.alloc.rate.norm 값이 프롬프트 1건당 할당 바이트
+// 실행: ./gradlew :server:jmh -Pjmh.includes=EmbeddingAllocationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmbeddingAllocationBenchmark {
+    private static final int DIMENSION = 1536;
+
+    private JsonNode response;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder("{\"object\":\"list\",\"data\":[{\"object\":\"embedding\",\"index\":0,\"embedding\":[");
+        for (int i = 0; i < DIMENSION; i++) {
+            if (i > 0) json.append(',');
+            json.append((float) (random.nextGaussian() * 0.05));
+        }
+        json.append("]}]}");
+        response = new ObjectMapper().readTree(json.toString());
+    }
+
+    @Benchmark
+    public double[] extractDouble() {
+        JsonNode embeddingData = response.path("data").get(0).path("embedding");
+        double[] embeddings = new double[embeddingData.size()];
+        for (int i = 0; i < embeddingData.size(); i++) {
+            embeddings[i] = embeddingData.get(i).asDouble();
+        }
+        return embeddings;
+    }
+
+    @Benchmark
+    public float[] extractFloat() {
+        return OpenAiApi.extractEmbeddingFromResponse(response);
+    }
+}
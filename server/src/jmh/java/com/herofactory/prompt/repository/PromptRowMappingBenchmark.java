@@ -0,0 +1,93 @@
+package com.herofactory.prompt.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.herofactory.converter.PgVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 조회 결과 행 1건을 객체로 옮기는 애플리케이션 측 매핑 비용만 비교 (vector 텍스트 + JSONB 포함 / 결과 컬럼 / 상태 컬럼)
+// 드라이버가 넘겨주는 컬럼 텍스트를 메모리에 재현해 CustomVectorRepository 의 row mapper 와 같은 파싱을 수행하며 DB 는 읽지 않음
+// 네트워크 전송량과 DB 실행 시간은 실제 DB 에서 EXPLAIN (ANALYZE, BUFFERS) 등으로 확인
+// 실행: ./gradlew :server:jmh -Pjmh.includes=PromptRowMappingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromptRowMappingBenchmark {
+    private static final int DIMENSION = 1536;
+    private static final TypeReference<List<String>> KEYWORDS_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Map<String, List<String>>>> CATEGORIES_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String[] statusRow;
+    private String[] resultRow;
+    private String vectorText;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        StringBuilder vector = new StringBuilder("[");
+        for (int i = 0; i < DIMENSION; i++) {
+            if (i > 0) vector.append(',');
+            vector.append((float) (random.nextGaussian() * 0.05));
+        }
+        vectorText = vector.append(']').toString();
+
+        String keywords = objectMapper.writeValueAsString(List.of("판타지", "기사", "중세", "성", "드래곤"));
+        String categories = objectMapper.writeValueAsString(List.of(
+                Map.of("캐릭터", List.of("기사", "마법사")),
+                Map.of("배경", List.of("중세", "성")),
+                Map.of("분위기", List.of("웅장한", "어두운"))));
+
+        statusRow = new String[]{
+                "2b4f7c1e-8d3a-4f6b-9c2e-1a5d7e9f0b3c", "prompt-20240101-0001", "COMPLETED", null,
+                "2024-01-01 12:00:05.123"};
+        resultRow = new String[]{
+                "prompt-20240101-0001", "member-1",
+                "중세 판타지 배경의 기사 캐릭터를 그려줘",
+                "Improved prompt: a medieval fantasy knight standing in front of a castle, dramatic lighting, "
+                        + "highly detailed armor, cinematic composition",
+                keywords, categories, "COMPLETED", null,
+                "2024-01-01 12:00:00.000", "2024-01-01 12:00:05.123", "2024-01-01 12:00:05.123"};
+    }
+
+    @Benchmark
+    public void mapWithVector(Blackhole blackhole) throws Exception {
+        parseResult(blackhole);
+        blackhole.consume(PgVector.parse(vectorText));
+    }
+
+    @Benchmark
+    public void mapResultColumns(Blackhole blackhole) throws Exception {
+        parseResult(blackhole);
+    }
+
+    @Benchmark
+    public void mapStatusColumns(Blackhole blackhole) {
+        for (String column : statusRow) {
+            blackhole.consume(column);
+        }
+    }
+
+    private void parseResult(Blackhole blackhole) throws Exception {
+        blackhole.consume(objectMapper.readValue(resultRow[4], KEYWORDS_TYPE));
+        blackhole.consume(objectMapper.readValue(resultRow[5], CATEGORIES_TYPE));
+        for (String column : resultRow) {
+            blackhole.consume(column);
+        }
+    }
+}
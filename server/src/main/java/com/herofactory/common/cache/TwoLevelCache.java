@@ -0,0 +1,118 @@
+package com.herofactory.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+// 로컬 L1(Guava) + Redis L2 캐시
+// L1 은 인스턴스별 최근 항목만, L2 는 인스턴스 간 공유. Redis 장애는 캐시 미스로 처리
+// 통계는 /actuator/metrics 의 cache.* (L1) 과 cache.l2.requests (L2) 로 노출
+@Slf4j
+public class TwoLevelCache<V> {
+    private final String name;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Class<V> type;
+    private final Duration ttl;
+    private final Cache<String, V> local;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+
+    public TwoLevelCache(String name, Class<V> type, Duration ttl, long maximumSize,
+                         StringRedisTemplate redisTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.ttl = ttl;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.local = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        GuavaCacheMetrics.monitor(meterRegistry, local, name);
+        this.remoteHits = remoteCounter(meterRegistry, "hit");
+        this.remoteMisses = remoteCounter(meterRegistry, "miss");
+        this.remoteErrors = remoteCounter(meterRegistry, "error");
+    }
+
+    public Optional<V> get(String key) {
+        V value = local.getIfPresent(key);
+        if (value != null) {
+            return Optional.of(value);
+        }
+
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey(key));
+            if (json == null) {
+                remoteMisses.increment();
+                return Optional.empty();
+            }
+            value = objectMapper.readValue(json, type);
+            remoteHits.increment();
+            local.put(key, value);
+            return Optional.of(value);
+        } catch (Exception e) {
+            log.warn("Cache {} read failed for key {}: {}", name, key, e.getMessage());
+            remoteErrors.increment();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, V value) {
+        local.put(key, value);
+        try {
+            redisTemplate.opsForValue().set(redisKey(key), objectMapper.writeValueAsString(value), ttl);
+        } catch (Exception e) {
+            log.warn("Cache {} write failed for key {}: {}", name, key, e.getMessage());
+            remoteErrors.increment();
+        }
+    }
+
+    public void evict(String key) {
+        local.invalidate(key);
+        try {
+            redisTemplate.delete(redisKey(key));
+        } catch (Exception e) {
+            log.warn("Cache {} evict failed for key {}: {}", name, key, e.getMessage());
+            remoteErrors.increment();
+        }
+    }
+
+    // 공백/대소문자 차이만 있는 입력이 같은 키가 되도록 정규화 후 SHA-256
+    public static String contentKey(String content) {
+        String normalized = content == null ? ""
+                : content.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return rawContentKey(normalized);
+    }
+
+    // 정규화 없이 원문 그대로 SHA-256. 대소문자/공백 차이도 결과에 영향을 주는 입력에 사용
+    public static String rawContentKey(String content) {
+        return Hashing.sha256().hashString(content == null ? "" : content, StandardCharsets.UTF_8).toString();
+    }
+
+    private String redisKey(String key) {
+        return "cache:" + name + ":" + key;
+    }
+
+    private Counter remoteCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.l2.requests")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
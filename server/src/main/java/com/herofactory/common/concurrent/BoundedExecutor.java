@@ -0,0 +1,182 @@
+package com.herofactory.common.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 블로킹 I/O(외부 API 호출) 전용 executor
+// 동시 실행 maxConcurrency, 대기 queueCapacity 를 넘으면 RejectedExecutionException 으로 즉시 거절
+// JDK 21+ 에서는 작업마다 가상 스레드를 만들고 Semaphore 로 동시 실행 수만 제한, 17 에서는 고정 크기 플랫폼 스레드 풀
+// 지표: executor.bounded.active / executor.bounded.queued / executor.bounded.rejected (tag: name)
+@Slf4j
+public class BoundedExecutor extends AbstractExecutorService {
+    private final String name;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final ExecutorService delegate;
+    private final boolean virtual;
+
+    // 가상 스레드 모드에서만 사용
+    private final Semaphore slots;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejected;
+
+    public BoundedExecutor(String name, int maxConcurrency, int queueCapacity, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+
+        ThreadFactory virtualFactory = virtualThreadFactory(name + "-");
+        if (virtualFactory != null) {
+            this.virtual = true;
+            this.delegate = newThreadPerTaskExecutor(virtualFactory);
+            this.slots = new Semaphore(maxConcurrency);
+        } else {
+            this.virtual = false;
+            AtomicInteger sequence = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name + "-" + sequence.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            this.delegate = pool;
+            this.slots = null;
+        }
+
+        Gauge.builder("executor.bounded.active", this, BoundedExecutor::activeCount)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("executor.bounded.queued", this, BoundedExecutor::queuedCount)
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("executor.bounded.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+
+        log.info("Initialized executor {} - virtual threads: {}, max concurrency: {}, queue capacity: {}",
+                name, virtual, maxConcurrency, queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        try {
+            if (virtual) {
+                executeOnVirtualThread(command);
+            } else {
+                delegate.execute(command);
+            }
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("Executor " + name + " is saturated", e);
+        }
+    }
+
+    private void executeOnVirtualThread(Runnable command) {
+        if (inFlight.incrementAndGet() > maxConcurrency + queueCapacity) {
+            inFlight.decrementAndGet();
+            throw new RejectedExecutionException("max concurrency and queue capacity exceeded");
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    // 가상 스레드는 대기 비용이 작으므로 permit 을 기다리는 동안이 곧 큐 대기
+                    slots.acquireUninterruptibly();
+                    try {
+                        command.run();
+                    } finally {
+                        slots.release();
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public int activeCount() {
+        if (virtual) {
+            return maxConcurrency - slots.availablePermits();
+        }
+        return ((ThreadPoolExecutor) delegate).getActiveCount();
+    }
+
+    public int queuedCount() {
+        if (virtual) {
+            return Math.max(0, inFlight.get() - activeCount());
+        }
+        return ((ThreadPoolExecutor) delegate).getQueue().size();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    // Java 17 로 컴파일하므로 JDK 21 API(Thread.ofVirtual)는 리플렉션으로 접근
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (Exception e) {
+            log.warn("Virtual threads unavailable, falling back to platform threads: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory factory) {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.herofactory.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 짧은 시간(maxWait) 안에 들어온 요청을 모아 batchCall 한 번으로 처리하고 결과를 각 future 에 돌려줌
+// 배치가 maxBatchSize 에 도달하면 대기하지 않고 바로 전송
+// batchCall 은 요청 순서대로 같은 개수의 결과를 돌려줘야 함. 개수가 다르면 배치의 모든 요청을 실패 처리
+// 사용: OpenAiApi(임베딩 input 배열), AutoInspectService(여러 아이템 검수 프롬프트)
+@Slf4j
+public class MicroBatcher<I, O> {
+    private final String name;
+    private final Function<List<I>, CompletableFuture<List<O>>> batchCall;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final ScheduledExecutorService scheduler;
+
+    private List<Pending<I, O>> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private record Pending<I, O>(I request, CompletableFuture<O> future) {
+    }
+
+    // batchCall 은 rate limit 대기와 HTTP 호출을 모두 비동기로 수행하는 함수 (호출 스레드는 스케줄러 또는 submit 호출 측)
+    public MicroBatcher(String name, Function<List<I>, CompletableFuture<List<O>>> batchCall,
+                        int maxBatchSize, Duration maxWait) {
+        this.name = name;
+        this.batchCall = batchCall;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<O> submit(I request) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        List<Pending<I, O>> ready = null;
+
+        synchronized (this) {
+            pending.add(new Pending<>(request, future));
+            if (pending.size() >= maxBatchSize) {
+                ready = drain();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return future;
+    }
+
+    public void flush() {
+        List<Pending<I, O>> ready;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = drain();
+        }
+        dispatch(ready);
+    }
+
+    // 대기 중인 요청을 전송하고 스케줄러 정리
+    public void close() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    // synchronized 블록 안에서만 호출
+    private List<Pending<I, O>> drain() {
+        List<Pending<I, O>> ready = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return ready;
+    }
+
+    private void dispatch(List<Pending<I, O>> batch) {
+        List<I> requests = batch.stream().map(Pending::request).toList();
+        CompletableFuture<List<O>> result;
+        try {
+            result = batchCall.apply(requests);
+        } catch (Exception e) {
+            // executor 가 작업을 거부하는 등 호출 자체가 실패하면 대기 중인 요청을 모두 실패 처리
+            batch.forEach(p -> p.future().completeExceptionally(e));
+            return;
+        }
+
+        result.whenComplete((results, error) -> {
+            if (error == null && results.size() != batch.size()) {
+                error = new IllegalStateException(
+                        name + " 배치 결과 개수 불일치: 요청 " + batch.size() + ", 응답 " + results.size());
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                batch.forEach(p -> p.future().completeExceptionally(cause));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future().complete(results.get(i));
+            }
+            log.debug("{} batch completed - size: {}", name, batch.size());
+        });
+    }
+}
@@ -1,8 +1,26 @@
 package com.herofactory.common.exception;
 
 
+import java.time.Duration;
+
 public class RateLimitException extends RuntimeException {
+    // 외부 API 의 429 응답이면 재시도 전 대기 시간, 내부 대기열 초과 등 재시도 대상이 아니면 null
+    private final Duration retryAfter;
+
     public RateLimitException(String message) {
+        this(message, null);
+    }
+
+    public RateLimitException(String message, Duration retryAfter) {
         super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public boolean isRetryable() {
+        return retryAfter != null;
     }
 }
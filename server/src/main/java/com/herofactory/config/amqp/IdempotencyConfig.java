@@ -0,0 +1,30 @@
+package com.herofactory.config.amqp;
+
+import com.herofactory.infrastructure.idempotency.IdempotencyStore;
+import com.herofactory.infrastructure.idempotency.JpaIdempotencyStore;
+import com.herofactory.infrastructure.idempotency.RedisIdempotencyStore;
+import com.herofactory.infrastructure.repository.MessageLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    // store: redis (기본) | jpa
+    @Bean
+    public IdempotencyStore idempotencyStore(
+            MessageLogRepository messageLogRepository,
+            StringRedisTemplate redisTemplate,
+            @Value("${messaging.idempotency.store:redis}") String store,
+            @Value("${messaging.idempotency.ttl:7d}") Duration ttl) {
+        JpaIdempotencyStore jpaStore = new JpaIdempotencyStore(messageLogRepository);
+        if ("jpa".equalsIgnoreCase(store)) {
+            return jpaStore;
+        }
+        return new RedisIdempotencyStore(redisTemplate, jpaStore, ttl);
+    }
+}
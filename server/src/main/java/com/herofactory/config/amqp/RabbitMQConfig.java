@@ -1,18 +1,26 @@
 package com.herofactory.config.amqp;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.retry.backoff.ExponentialBackOffPolicy;
-import org.springframework.retry.policy.SimpleRetryPolicy;
-import org.springframework.retry.support.RetryTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
 @Configuration
 public class RabbitMQConfig {
     public static final String PAYMENT_QUEUE = "payment-queue";
@@ -27,6 +35,8 @@ public class RabbitMQConfig {
     public static final String SUBSCRIPTION_EXCHANGE = "subscription-exchange";
     public static final String SUBSCRIPTION_DLQ = "subscription-dlq";
     public static final String SUBSCRIPTION_DLX = "subscription-dlx";
+    // 지연 재시도: {작업 큐}.retry.{지연} 큐에 TTL 동안 머문 뒤 DLX 로 원래 작업 큐에 되돌아감
+    public static final String RETRY_EXCHANGE = "retry-exchange";
 
 
     @Bean
@@ -118,6 +128,9 @@ public class RabbitMQConfig {
         connectionFactory.setPort(5672);
         connectionFactory.setUsername("guest");
         connectionFactory.setPassword("guest");
+        // 발행 결과를 CorrelationData 별로 비동기 통보 (ReliablePublisher)
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        connectionFactory.setPublisherReturns(true);
         return connectionFactory;
     }
 
@@ -126,6 +139,10 @@ public class RabbitMQConfig {
                                          MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        // 라우팅되지 않은 메시지를 조용히 버리지 않고 돌려받음 (CorrelationData.getReturned)
+        template.setMandatory(true);
+        template.setReturnsCallback(returned -> log.warn("Message returned: {} {} (exchange={}, routingKey={})",
+                returned.getReplyCode(), returned.getReplyText(), returned.getExchange(), returned.getRoutingKey()));
         return template;
     }
 
@@ -138,26 +155,74 @@ public class RabbitMQConfig {
         factory.setMessageConverter(messageConverter);
         factory.setPrefetchCount(1);
         factory.setDefaultRequeueRejected(false);  // DLQ로 보내도록 변경
-        // 명시적인 재시도 정책 설정
-        factory.setRetryTemplate(retryTemplate());
         return factory;
     }
+
+    // 큐별 리스너 컨테이너 - OpenAI 응답을 기다리는 prompt 소비자 수를 결제/구독과 독립적으로 조정
     @Bean
-    public RetryTemplate retryTemplate() {
-        RetryTemplate template = new RetryTemplate();
+    public SimpleRabbitListenerContainerFactory promptListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            MeterRegistry meterRegistry,
+            @Value("${rabbitmq.listener.prompt.concurrency:4}") int concurrency,
+            @Value("${rabbitmq.listener.prompt.max-concurrency:16}") int maxConcurrency,
+            @Value("${rabbitmq.listener.prompt.prefetch:2}") int prefetch) {
+        return listenerContainerFactory("prompt", connectionFactory, messageConverter, meterRegistry,
+                concurrency, maxConcurrency, prefetch);
+    }
 
-        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
-        backOffPolicy.setInitialInterval(1000L);
-        backOffPolicy.setMultiplier(2.0);
-        backOffPolicy.setMaxInterval(10000L);
-        template.setBackOffPolicy(backOffPolicy);
+    @Bean
+    public SimpleRabbitListenerContainerFactory paymentListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            MeterRegistry meterRegistry,
+            @Value("${rabbitmq.listener.payment.concurrency:1}") int concurrency,
+            @Value("${rabbitmq.listener.payment.max-concurrency:2}") int maxConcurrency,
+            @Value("${rabbitmq.listener.payment.prefetch:1}") int prefetch) {
+        return listenerContainerFactory("payment", connectionFactory, messageConverter, meterRegistry,
+                concurrency, maxConcurrency, prefetch);
+    }
 
-        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy();
-        retryPolicy.setMaxAttempts(3);
-        template.setRetryPolicy(retryPolicy);
+    @Bean
+    public SimpleRabbitListenerContainerFactory subscriptionListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            MeterRegistry meterRegistry,
+            @Value("${rabbitmq.listener.subscription.concurrency:1}") int concurrency,
+            @Value("${rabbitmq.listener.subscription.max-concurrency:2}") int maxConcurrency,
+            @Value("${rabbitmq.listener.subscription.prefetch:1}") int prefetch) {
+        return listenerContainerFactory("subscription", connectionFactory, messageConverter, meterRegistry,
+                concurrency, maxConcurrency, prefetch);
+    }
 
-        return template;
+    // concurrency 로 시작해 대기 메시지가 계속 있으면 maxConcurrency 까지 소비자를 늘리고, 한가하면 다시 줄임
+    // 지표: spring.rabbitmq.listener (처리 시간/결과, tag: group), rabbitmq.listener.consumers (현재 소비자 수)
+    private SimpleRabbitListenerContainerFactory listenerContainerFactory(
+            String group,
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            MeterRegistry meterRegistry,
+            int concurrency, int maxConcurrency, int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        // 리스너가 Channel 로 직접 basicAck/basicNack 하므로 컨테이너 자동 ack 를 끔 (중복 ack 방지)
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(prefetch);
+        factory.setDefaultRequeueRejected(false);
+        factory.setMicrometerEnabled(true);
+        factory.setContainerCustomizer(container -> {
+            container.setMicrometerTags(Map.of("group", group));
+            Gauge.builder("rabbitmq.listener.consumers", container, SimpleMessageListenerContainer::getActiveConsumerCount)
+                    .tag("group", group)
+                    .tag("queue", String.join(",", container.getQueueNames()))
+                    .register(meterRegistry);
+        });
+        return factory;
     }
+
     @Bean
     public Queue subscriptionQueue() {
         return QueueBuilder.durable(SUBSCRIPTION_QUEUE)
@@ -195,4 +260,37 @@ public class RabbitMQConfig {
                 .to(subscriptionDeadLetterExchange())
                 .with(SUBSCRIPTION_DLQ);
     }
-}
\ No newline at end of file
+
+    // 작업 큐마다 지연 단계별 재시도 큐를 선언. 큐 TTL 은 선언 후 바꿀 수 없으므로 지연 값을 큐 이름에 포함
+    @Bean
+    public Declarables retryTopology(@Value("${messaging.retry.delays:5s,30s,5m}") Duration[] delays) {
+        List<Declarable> declarables = new ArrayList<>();
+        DirectExchange retryExchange = new DirectExchange(RETRY_EXCHANGE);
+        declarables.add(retryExchange);
+
+        Map<String, String> workQueues = Map.of(
+                PROMPT_QUEUE, PROMPT_EXCHANGE,
+                PAYMENT_QUEUE, PAYMENT_EXCHANGE,
+                SUBSCRIPTION_QUEUE, SUBSCRIPTION_EXCHANGE
+        );
+        workQueues.forEach((workQueue, workExchange) -> {
+            for (Duration delay : delays) {
+                String name = retryQueueName(workQueue, delay);
+                Queue retryQueue = QueueBuilder.durable(name)
+                        .ttl((int) delay.toMillis())
+                        .deadLetterExchange(workExchange)
+                        .deadLetterRoutingKey(workQueue)
+                        .build();
+                declarables.add(retryQueue);
+                declarables.add(BindingBuilder.bind(retryQueue).to(retryExchange).with(name));
+            }
+        });
+        return new Declarables(declarables);
+    }
+
+    public static String retryQueueName(String workQueue, Duration delay) {
+        long millis = delay.toMillis();
+        String suffix = millis % 1000 == 0 ? (millis / 1000) + "s" : millis + "ms";
+        return workQueue + ".retry." + suffix;
+    }
+}
@@ -110,6 +110,21 @@ public class KafkaConfig {
         return factory;
     }
 
+    // 한 번의 poll 로 받은 레코드를 List 로 넘기는 배치 리스너 (ContentIndexingWorker 의 _bulk 색인)
+    // 처리 후 배치 단위로 offset 커밋. BatchListenerFailedException 으로 실패 위치를 알리면 그 앞까지는 커밋됨
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory,
+            CommonErrorHandler errorHandler
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(errorHandler);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(AckMode.BATCH);
+        return factory;
+    }
+
     private BackOff generateBackOff() {
         ExponentialBackOff backOff = new ExponentialBackOff(1000, 2);
         backOff.setMaxAttempts(3);
@@ -1,37 +1,77 @@
 package com.herofactory.config.openai;
 
+import com.herofactory.common.exception.RateLimitException;
+import com.herofactory.config.openai.util.OpenAiRateLimiter;
+import com.herofactory.config.openai.util.OpenAiRateLimiterRegistry;
+import com.herofactory.config.openai.util.OpenAiRetrier;
 import com.herofactory.inspecteditem.dto.ChatCompletionResponse;
 import com.herofactory.kafka.CustomObjectMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 @Component
 public class ChatGptClient {
 
     private static final String TARGET_GPT_MODEL = "gpt-3.5-turbo";
+    private static final int EXPECTED_COMPLETION_TOKENS = 256;
     private final CustomObjectMapper objectMapper = new CustomObjectMapper();
 
     public ChatGptClient(
-            @Qualifier("chatGptWebClient") WebClient chatGptWebClient
+            @Qualifier("chatGptWebClient") WebClient chatGptWebClient,
+            @Qualifier("openAiExecutor") Executor openAiExecutor,
+            OpenAiRateLimiterRegistry rateLimiters,
+            @Value("${OPENAI_API_SEONGIL_KEY}") String openaiApiKey,
+            @Value("${openai.api.retry.max-attempts:3}") int maxRetries,
+            @Value("${openai.api.retry.base-delay:500ms}") Duration retryBaseDelay
     ) {
         this.chatGptWebClient = chatGptWebClient;
+        this.openaiApiKey = openaiApiKey;
+        // OpenAiApi 와 키/모델이 다르므로 한도 버킷도 따로 사용
+        this.rateLimiter = rateLimiters.forModel(openaiApiKey, TARGET_GPT_MODEL);
+        this.retrier = new OpenAiRetrier(openAiExecutor, maxRetries, retryBaseDelay);
     }
     private final WebClient chatGptWebClient;
-    @Value("${OPENAI_API_SEONGIL_KEY}")
-    private String openaiApiKey;
+    private final OpenAiRateLimiter rateLimiter;
+    private final OpenAiRetrier retrier;
+    private final String openaiApiKey;
 
-    public String getResultForContentWithPolicy(
+    // permit 은 비동기로 기다리고, 획득 후 block() 이 포함된 호출만 전용 executor 에서 실행
+    // 429 는 Retry-After 대기 + jitter 백오프로 재시도하므로 일시적인 한도 초과로 검수 배치 전체가 실패하지 않음
+    public CompletableFuture<String> getResultForContentWithPolicyAsync(
             String content,
             ChatPolicy chatPolicy
     ) {
-        String jsonString = chatGptWebClient
+        return getResultForContentWithPolicyAsync(content, chatPolicy, EXPECTED_COMPLETION_TOKENS);
+    }
+
+    // 여러 건을 한 번에 검수하는 요청처럼 응답이 긴 경우 예상 완료 토큰을 직접 지정
+    public CompletableFuture<String> getResultForContentWithPolicyAsync(
+            String content,
+            ChatPolicy chatPolicy,
+            int expectedCompletionTokens
+    ) {
+        int estimated = estimateTokens(content, chatPolicy, expectedCompletionTokens);
+        return retrier.call(rateLimiter, OpenAiRateLimiter.Lane.INSPECTION, estimated,
+                () -> requestResult(content, chatPolicy, expectedCompletionTokens, estimated));
+    }
+
+    // 완료 토큰 상한을 예상치와 맞춰 보내 rate limiter 가 잡아둔 토큰보다 길게 생성되지 않도록 함
+    private String requestResult(String content, ChatPolicy chatPolicy, int maxCompletionTokens, int estimatedTokens) {
+        ResponseEntity<String> entity;
+        try {
+            entity = chatGptWebClient
                 .post()
                 .uri("/v1/chat/completions")
                 .header("Authorization", "Bearer "+ openaiApiKey)
@@ -44,19 +84,43 @@ public class ChatGptClient {
                                 Map.of("role", "assistant", "content", chatPolicy.exampleInspectionResult),
                                 Map.of("role", "user", "content", content)
                         ),
+                        "max_tokens", maxCompletionTokens,
                         "stream", false
                 ))
                 .retrieve()
-                .bodyToMono(String.class)
+                .toEntity(String.class)
                 .block();
+        } catch (WebClientResponseException e) {
+            rateLimiter.updateFromHeaders(e.getHeaders());
+            if (e.getStatusCode().value() == 429) {
+                Duration retryAfter = OpenAiRateLimiter.retryAfter(e.getHeaders());
+                rateLimiter.pause(retryAfter);
+                throw new RateLimitException("검수 API 호출 한도 초과: " + e.getResponseBodyAsString(), retryAfter);
+            }
+            throw e;
+        }
+        rateLimiter.updateFromHeaders(entity.getHeaders());
+        String jsonString = entity.getBody();
         try {
             ChatCompletionResponse response = objectMapper.readValue(jsonString, ChatCompletionResponse.class);
+            if (response.getUsage() != null) {
+                rateLimiter.reconcile(estimatedTokens, response.getUsage().getTotalTokens());
+            }
             return response.getChoices()[0].getMessage().getContent();
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
     }
 
+    // 검수 응답은 짧으므로 완료 토큰은 기본 EXPECTED_COMPLETION_TOKENS 로 가정하고 실제 사용량으로 보정
+    private static int estimateTokens(String content, ChatPolicy chatPolicy, int expectedCompletionTokens) {
+        return OpenAiRateLimiter.estimateTokens(chatPolicy.instruction)
+                + OpenAiRateLimiter.estimateTokens(chatPolicy.exampleContent)
+                + OpenAiRateLimiter.estimateTokens(chatPolicy.exampleInspectionResult)
+                + OpenAiRateLimiter.estimateTokens(content)
+                + expectedCompletionTokens;
+    }
+
     @Data
     public static class ChatPolicy{
         private final String instruction;
@@ -1,6 +1,8 @@
 package com.herofactory.config.openai;
 
+import com.herofactory.config.openai.util.OpenAiRateLimiterRegistry;
 import com.herofactory.prompt.infrastructure.openai.OpenAiApi;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +10,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 @Configuration
 @Slf4j
 public class OpenAiConfig {
@@ -27,8 +32,43 @@ public class OpenAiConfig {
     @Value("${openai.api.rate-limit.requests-per-minute}")
     private double requestsPerMinute;
 
+    @Value("${openai.api.rate-limit.tokens-per-minute:40000}")
+    private double tokensPerMinute;
+
+    @Value("${openai.api.rate-limit.headroom:0.9}")
+    private double rateLimitHeadroom;
+
+    @Value("${openai.api.rate-limit.max-wait:30s}")
+    private Duration rateLimitMaxWait;
+
+    @Value("${openai.api.rate-limit.max-queue-size:500}")
+    private int rateLimitMaxQueueSize;
+
+    @Value("${openai.api.retry.max-attempts:3}")
+    private int maxRetries;
+
+    @Value("${openai.api.retry.base-delay:500ms}")
+    private Duration retryBaseDelay;
+
+    @Value("${openai.api.embedding-batch.max-size:16}")
+    private int embeddingBatchSize;
+
+    @Value("${openai.api.embedding-batch.max-wait:20ms}")
+    private Duration embeddingBatchWindow;
+
+    // OpenAiApi, ChatGptClient 가 API 키 + 모델별 버킷을 꺼내 쓰는 저장소. RPM/TPM 은 버킷별 초기값
+    @Bean(destroyMethod = "shutdown")
+    public OpenAiRateLimiterRegistry openAiRateLimiterRegistry(MeterRegistry meterRegistry) {
+        log.info("Initialized OpenAI rate limiter registry - initial RPM: {}, TPM: {}, max wait: {}",
+                requestsPerMinute, tokensPerMinute, rateLimitMaxWait);
+        return new OpenAiRateLimiterRegistry(requestsPerMinute, tokensPerMinute, rateLimitHeadroom, rateLimitMaxWait,
+                rateLimitMaxQueueSize, meterRegistry);
+    }
+
     @Bean
-    public OpenAiApi openAiApi(@Qualifier("openAiRestTemplate") RestTemplate openaiRestTemplate) {
+    public OpenAiApi openAiApi(@Qualifier("openAiRestTemplate") RestTemplate openaiRestTemplate,
+                               @Qualifier("openAiExecutor") Executor openAiExecutor,
+                               OpenAiRateLimiterRegistry openAiRateLimiterRegistry) {
         if (apiKey == null || apiKey.trim().isEmpty() || !apiKey.startsWith("sk-")) {
             log.error("Invalid OpenAI API key configuration");
             throw new IllegalStateException("Invalid OpenAI API key");
@@ -40,7 +80,12 @@ public class OpenAiConfig {
                 .model(chatModel)
                 .embeddingModel(embeddingModel)
                 .restTemplate(openaiRestTemplate)
-                .requestsPerMinute(requestsPerMinute)
+                .rateLimiters(openAiRateLimiterRegistry)
+                .embeddingBatchSize(embeddingBatchSize)
+                .embeddingBatchWindow(embeddingBatchWindow)
+                .executor(openAiExecutor)
+                .maxRetries(maxRetries)
+                .retryBaseDelay(retryBaseDelay)
                 .build();
 
         log.info("Initialized OpenAI API with models - Chat: {}, Embedding: {}", chatModel, embeddingModel);
@@ -0,0 +1,20 @@
+package com.herofactory.config.openai;
+
+import com.herofactory.common.concurrent.BoundedExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// OpenAI 호출(OpenAiApi, ChatGptClient)은 블로킹 I/O 이므로 공용 ForkJoinPool 이 아닌 전용 executor 에서 실행
+@Configuration
+public class OpenAiExecutorConfig {
+
+    @Bean(name = "openAiExecutor", destroyMethod = "shutdown")
+    public BoundedExecutor openAiExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${openai.api.executor.max-concurrency:32}") int maxConcurrency,
+            @Value("${openai.api.executor.queue-capacity:200}") int queueCapacity) {
+        return new BoundedExecutor("openai", maxConcurrency, queueCapacity, meterRegistry);
+    }
+}
@@ -0,0 +1,384 @@
+package com.herofactory.config.openai.util;
+
+import com.herofactory.common.exception.RateLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// OpenAI 호출 rate limiter. API 키 + 모델 하나당 인스턴스 하나 (OpenAiRateLimiterRegistry)
+// 분당 요청 수(RPM)와 분당 토큰 수(TPM) 두 개의 토큰 버킷을 연속적으로 채우며, 두 버킷 모두 여유가 있어야 통과
+// 여유가 없으면 스레드를 재우지 않고 대기열에 넣은 뒤 스케줄러가 permit 이 생기는 시점에 future 를 완료시킴
+// 호출 기능(lane)별 대기열을 번갈아 처리해 한 버킷을 나눠 쓰는 기능끼리 서로 굶기지 않도록 하고, maxWait 을 넘기면 RateLimitException
+// 응답의 x-ratelimit-* 헤더로 한도/잔여량을 실시간 보정하고, 429 의 Retry-After 동안은 이 버킷의 호출을 멈춤
+@Slf4j
+public class OpenAiRateLimiter {
+    // 같은 키 + 모델을 쓰면 프롬프트 분석(OpenAiApi)과 아이템 자동 검수(ChatGptClient)가 한 버킷을 공유
+    public enum Lane {
+        PROMPT, INSPECTION
+    }
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final String name;
+    // 헤더로 받은 서버 한도 중 실제로 사용할 비율 (다른 클라이언트/추정 오차 여유분)
+    private final double headroom;
+    private final Duration maxWait;
+    private final int maxQueueSize;
+
+    private double requestsPerMinute;
+    private double tokensPerMinute;
+
+    private final Map<Lane, ArrayDeque<Waiter>> queues = new EnumMap<>(Lane.class);
+    private final ScheduledExecutorService scheduler;
+    private final Counter rejected;
+
+    private double availableRequests;
+    private double availableTokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private Lane lastServed = Lane.INSPECTION;
+    private ScheduledFuture<?> scheduledDrain;
+
+    private static final class Waiter {
+        private final int tokens;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private ScheduledFuture<?> timeout;
+
+        private Waiter(int tokens) {
+            this.tokens = tokens;
+        }
+    }
+
+    public OpenAiRateLimiter(double requestsPerMinute, double tokensPerMinute, double headroom, Duration maxWait,
+                             int maxQueueSize, MeterRegistry meterRegistry) {
+        this("default", requestsPerMinute, tokensPerMinute, headroom, maxWait, maxQueueSize, meterRegistry);
+    }
+
+    // name: 메트릭의 bucket 태그 ("모델@키 해시")
+    public OpenAiRateLimiter(String name, double requestsPerMinute, double tokensPerMinute, double headroom,
+                             Duration maxWait, int maxQueueSize, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.headroom = headroom;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.maxWait = maxWait;
+        this.maxQueueSize = maxQueueSize;
+        this.availableRequests = requestsPerMinute;
+        this.availableTokens = tokensPerMinute;
+        this.lastRefillNanos = System.nanoTime();
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<>());
+            Gauge.builder("openai.ratelimit.waiting", this, limiter -> limiter.waiting(lane))
+                    .tag("lane", lane.name().toLowerCase())
+                    .tag("bucket", name)
+                    .register(meterRegistry);
+        }
+        this.rejected = Counter.builder("openai.ratelimit.rejected").tag("bucket", name).register(meterRegistry);
+        registerBudgetGauge(meterRegistry, "requests", "limit", limiter -> limiter.requestsPerMinute);
+        registerBudgetGauge(meterRegistry, "requests", "available", limiter -> limiter.availableRequests);
+        registerBudgetGauge(meterRegistry, "tokens", "limit", limiter -> limiter.tokensPerMinute);
+        registerBudgetGauge(meterRegistry, "tokens", "available", limiter -> limiter.availableTokens);
+        Gauge.builder("openai.ratelimit.paused.seconds", this, OpenAiRateLimiter::pausedSeconds)
+                .tag("bucket", name)
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "openai-rate-limiter-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // permit 을 얻으면 완료되는 future. 호출 스레드는 대기하지 않음
+    public CompletableFuture<Void> acquire(Lane lane, int tokens) {
+        Waiter waiter;
+        synchronized (this) {
+            refill();
+            // 한도보다 큰 요청은 영원히 통과하지 못하므로 한도로 제한
+            int cost = (int) Math.min(Math.max(tokens, 1), tokensPerMinute);
+            waiter = new Waiter(cost);
+            if (noWaiters() && tryTake(cost)) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            ArrayDeque<Waiter> queue = queues.get(lane);
+            if (queue.size() >= maxQueueSize) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RateLimitException("API 호출 대기열이 가득 찼습니다: " + lane));
+            }
+            queue.addLast(waiter);
+            waiter.timeout = scheduler.schedule(() -> expire(waiter), maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            scheduleDrain(nanosUntilAvailable(cost));
+        }
+        return waiter.future;
+    }
+
+    // 실제 사용 토큰이 추정치와 다르면 TPM 버킷을 보정 (남으면 돌려주고, 모자라면 추가 차감)
+    public synchronized void reconcile(int estimatedTokens, int actualTokens) {
+        if (actualTokens <= 0) {
+            return;
+        }
+        refill();
+        availableTokens = Math.min(tokensPerMinute, availableTokens + estimatedTokens - actualTokens);
+        if (actualTokens < estimatedTokens && !noWaiters()) {
+            scheduleDrain(0);
+        }
+    }
+
+    // 응답 헤더 기준으로 한도와 잔여량 보정
+    // 한도는 서버 값 * headroom 으로 맞추고, 잔여량은 서버가 더 적게 보고할 때만 낮춤(진행 중인 요청은 서버에 아직 반영 전일 수 있음)
+    public synchronized void updateFromHeaders(HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        refill();
+        Double limitRequests = parseNumber(headers.getFirst("x-ratelimit-limit-requests"));
+        Double limitTokens = parseNumber(headers.getFirst("x-ratelimit-limit-tokens"));
+        Double remainingRequests = parseNumber(headers.getFirst("x-ratelimit-remaining-requests"));
+        Double remainingTokens = parseNumber(headers.getFirst("x-ratelimit-remaining-tokens"));
+
+        if (limitRequests != null && limitRequests > 0) {
+            requestsPerMinute = limitRequests * headroom;
+        }
+        if (limitTokens != null && limitTokens > 0) {
+            tokensPerMinute = limitTokens * headroom;
+        }
+        if (remainingRequests != null) {
+            availableRequests = Math.min(availableRequests, remainingRequests);
+        }
+        if (remainingTokens != null) {
+            availableTokens = Math.min(availableTokens, remainingTokens);
+        }
+        availableRequests = Math.min(availableRequests, requestsPerMinute);
+        availableTokens = Math.min(availableTokens, tokensPerMinute);
+
+        // 잔여량이 바닥났으면 서버가 알려준 reset 시점까지 멈춤
+        if (remainingRequests != null && remainingRequests < 1) {
+            pause(parseResetDuration(headers.getFirst("x-ratelimit-reset-requests")));
+        }
+        if (remainingTokens != null && remainingTokens < 1) {
+            pause(parseResetDuration(headers.getFirst("x-ratelimit-reset-tokens")));
+        }
+    }
+
+    // 429 응답의 Retry-After 동안 이 버킷의 모든 lane 에 permit 발급 중지
+    public synchronized void pause(Duration duration) {
+        if (duration == null || duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        long until = System.nanoTime() + duration.toNanos();
+        if (until - pausedUntilNanos > 0) {
+            pausedUntilNanos = until;
+            log.warn("OpenAI rate limit reached, pausing {} calls for {}ms", name, duration.toMillis());
+        }
+    }
+
+    // retry-after-ms, retry-after(초), x-ratelimit-reset-* 순으로 확인
+    public static Duration retryAfter(HttpHeaders headers) {
+        if (headers == null) {
+            return Duration.ZERO;
+        }
+        Double millis = parseNumber(headers.getFirst("retry-after-ms"));
+        if (millis != null) {
+            return Duration.ofMillis(millis.longValue());
+        }
+        Double seconds = parseNumber(headers.getFirst(HttpHeaders.RETRY_AFTER));
+        if (seconds != null) {
+            return Duration.ofMillis((long) (seconds * 1000));
+        }
+        Duration requests = parseResetDuration(headers.getFirst("x-ratelimit-reset-requests"));
+        Duration tokens = parseResetDuration(headers.getFirst("x-ratelimit-reset-tokens"));
+        return requests.compareTo(tokens) >= 0 ? requests : tokens;
+    }
+
+    // OpenAI reset 헤더 형식: "1s", "6m0s", "59.5ms", "1h2m3s"
+    static Duration parseResetDuration(String value) {
+        if (value == null || value.isBlank()) {
+            return Duration.ZERO;
+        }
+        Matcher matcher = DURATION_PART.matcher(value.trim());
+        double millis = 0;
+        while (matcher.find()) {
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1_000;
+                default -> amount;
+            };
+        }
+        return Duration.ofMillis((long) Math.ceil(millis));
+    }
+
+    private static Double parseNumber(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // 대략 4글자당 1토큰. 한글 비중이 높으면 과소 추정될 수 있으나 reconcile 로 보정됨
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : text.length() / 4 + 1;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        List<Waiter> pending = new ArrayList<>();
+        synchronized (this) {
+            queues.values().forEach(pending::addAll);
+            queues.values().forEach(ArrayDeque::clear);
+        }
+        pending.forEach(w -> w.future.completeExceptionally(new RateLimitException("rate limiter 종료")));
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            scheduledDrain = null;
+            refill();
+            while (true) {
+                Lane lane = nextLane();
+                if (lane == null) {
+                    break;
+                }
+                Waiter head = queues.get(lane).peekFirst();
+                if (!tryTake(head.tokens)) {
+                    // 순서를 지키기 위해 다음 차례 요청에 필요한 만큼 찰 때까지 대기
+                    scheduleDrain(nanosUntilAvailable(head.tokens));
+                    break;
+                }
+                queues.get(lane).pollFirst();
+                lastServed = lane;
+                granted.add(head);
+            }
+        }
+        for (Waiter waiter : granted) {
+            waiter.timeout.cancel(false);
+            if (!waiter.future.complete(null)) {
+                // 타임아웃과 경합해 이미 실패 처리된 경우 permit 반환
+                synchronized (this) {
+                    availableRequests = Math.min(requestsPerMinute, availableRequests + 1);
+                    availableTokens = Math.min(tokensPerMinute, availableTokens + waiter.tokens);
+                }
+            }
+        }
+    }
+
+    // 직전에 처리한 lane 의 반대편을 우선. 완료(타임아웃)된 대기자는 건너뜀
+    private Lane nextLane() {
+        Lane[] lanes = Lane.values();
+        for (int i = 1; i <= lanes.length; i++) {
+            Lane lane = lanes[(lastServed.ordinal() + i) % lanes.length];
+            ArrayDeque<Waiter> queue = queues.get(lane);
+            while (!queue.isEmpty() && queue.peekFirst().future.isDone()) {
+                queue.pollFirst();
+            }
+            if (!queue.isEmpty()) {
+                return lane;
+            }
+        }
+        return null;
+    }
+
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            queues.values().forEach(queue -> queue.remove(waiter));
+        }
+        if (waiter.future.completeExceptionally(
+                new RateLimitException("API 호출 대기 시간(" + maxWait.toMillis() + "ms) 초과"))) {
+            rejected.increment();
+        }
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (scheduledDrain != null) {
+            if (scheduledDrain.getDelay(TimeUnit.NANOSECONDS) <= delayNanos) {
+                return;
+            }
+            scheduledDrain.cancel(false);
+        }
+        scheduledDrain = scheduler.schedule(this::drain, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean tryTake(int tokens) {
+        if (System.nanoTime() - pausedUntilNanos < 0) {
+            return false;
+        }
+        if (availableRequests >= 1 && availableTokens >= tokens) {
+            availableRequests -= 1;
+            availableTokens -= tokens;
+            return true;
+        }
+        return false;
+    }
+
+    private long nanosUntilAvailable(int tokens) {
+        double requestDeficit = Math.max(0, 1 - availableRequests);
+        double tokenDeficit = Math.max(0, tokens - availableTokens);
+        double nanos = Math.max(
+                requestDeficit / requestsPerMinute * NANOS_PER_MINUTE,
+                tokenDeficit / tokensPerMinute * NANOS_PER_MINUTE);
+        long pausedNanos = pausedUntilNanos - System.nanoTime();
+        return Math.max((long) Math.ceil(nanos), pausedNanos);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedMinutes = (double) (now - lastRefillNanos) / NANOS_PER_MINUTE;
+        lastRefillNanos = now;
+        availableRequests = Math.min(requestsPerMinute, availableRequests + elapsedMinutes * requestsPerMinute);
+        availableTokens = Math.min(tokensPerMinute, availableTokens + elapsedMinutes * tokensPerMinute);
+    }
+
+    private boolean noWaiters() {
+        return queues.values().stream().allMatch(ArrayDeque::isEmpty);
+    }
+
+    private synchronized int waiting(Lane lane) {
+        return queues.get(lane).size();
+    }
+
+    private synchronized double pausedSeconds() {
+        return Math.max(0, pausedUntilNanos - System.nanoTime()) / 1e9;
+    }
+
+    private void registerBudgetGauge(MeterRegistry meterRegistry, String type, String kind,
+                                     ToDoubleFunction<OpenAiRateLimiter> value) {
+        Gauge.builder("openai.ratelimit.budget", this, limiter -> {
+                    synchronized (limiter) {
+                        limiter.refill();
+                        return value.applyAsDouble(limiter);
+                    }
+                })
+                .tag("type", type)
+                .tag("kind", kind)
+                .tag("bucket", name)
+                .register(meterRegistry);
+    }
+}
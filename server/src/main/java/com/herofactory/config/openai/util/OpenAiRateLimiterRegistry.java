@@ -0,0 +1,48 @@
+package com.herofactory.config.openai.util;
+
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// OpenAI 한도(x-ratelimit-* 헤더, 429)는 API 키 + 모델 단위이므로 버킷도 그 단위로 하나씩 둠
+// 한 모델 응답의 헤더 보정이나 Retry-After 정지가 다른 키/모델의 버킷에 영향을 주지 않음
+// 설정값(RPM/TPM)은 첫 응답 헤더를 받기 전까지 쓰는 초기값
+public class OpenAiRateLimiterRegistry {
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final double headroom;
+    private final Duration maxWait;
+    private final int maxQueueSize;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OpenAiRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public OpenAiRateLimiterRegistry(double requestsPerMinute, double tokensPerMinute, double headroom,
+                                     Duration maxWait, int maxQueueSize, MeterRegistry meterRegistry) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.headroom = headroom;
+        this.maxWait = maxWait;
+        this.maxQueueSize = maxQueueSize;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public OpenAiRateLimiter forModel(String apiKey, String model) {
+        return limiters.computeIfAbsent(bucketName(apiKey, model), name -> new OpenAiRateLimiter(
+                name, requestsPerMinute, tokensPerMinute, headroom, maxWait, maxQueueSize, meterRegistry));
+    }
+
+    public void shutdown() {
+        limiters.values().forEach(OpenAiRateLimiter::shutdown);
+    }
+
+    // 메트릭 태그로도 쓰이므로 키 원문 대신 해시 앞부분만 사용
+    static String bucketName(String apiKey, String model) {
+        String keyId = Hashing.sha256().hashString(apiKey == null ? "" : apiKey, StandardCharsets.UTF_8)
+                .toString().substring(0, 8);
+        return model + "@" + keyId;
+    }
+}
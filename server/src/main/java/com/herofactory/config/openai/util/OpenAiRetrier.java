@@ -0,0 +1,62 @@
+package com.herofactory.config.openai.util;
+
+import com.herofactory.common.exception.RateLimitException;
+import com.herofactory.config.openai.util.OpenAiRateLimiter.Lane;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// OpenAiApi, ChatGptClient 공용 429 재시도
+// permit 획득 -> executor 에서 호출. 재시도 가능한 RateLimitException 이면 limiter 가 Retry-After 동안 멈춘 상태에서
+// jitter 를 준 지수 백오프 후 다시 permit 부터 획득
+@Slf4j
+public class OpenAiRetrier {
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(20);
+
+    private final Executor executor;
+    private final int maxRetries;
+    private final Duration baseDelay;
+
+    public OpenAiRetrier(Executor executor, int maxRetries, Duration baseDelay) {
+        this.executor = executor;
+        this.maxRetries = maxRetries;
+        this.baseDelay = baseDelay;
+    }
+
+    public <T> CompletableFuture<T> call(OpenAiRateLimiter limiter, Lane lane, int estimatedTokens, Supplier<T> call) {
+        return call(limiter, lane, estimatedTokens, call, 0);
+    }
+
+    private <T> CompletableFuture<T> call(OpenAiRateLimiter limiter, Lane lane, int estimatedTokens,
+                                          Supplier<T> call, int attempt) {
+        return limiter.acquire(lane, estimatedTokens)
+                .thenApplyAsync(ignored -> call.get(), executor)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof RateLimitException rateLimitException
+                            && rateLimitException.isRetryable() && attempt < maxRetries) {
+                        long delayMillis = backoffMillis(attempt);
+                        log.warn("OpenAI {} {} rate limited, retry {}/{} in {}ms (retry-after: {}ms)",
+                                limiter.getName(), lane, attempt + 1, maxRetries, delayMillis,
+                                rateLimitException.getRetryAfter().toMillis());
+                        Executor delayed = CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, executor);
+                        return CompletableFuture.runAsync(() -> { }, delayed)
+                                .thenCompose(ignored -> call(limiter, lane, estimatedTokens, call, attempt + 1));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    // full jitter: [0, min(max, base * 2^attempt)) 구간에서 무작위
+    long backoffMillis(int attempt) {
+        long cap = Math.min(MAX_RETRY_DELAY.toMillis(), baseDelay.toMillis() << Math.min(attempt, 16));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, cap));
+    }
+}
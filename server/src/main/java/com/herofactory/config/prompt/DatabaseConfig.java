@@ -1,6 +1,7 @@
 package com.herofactory.config.prompt;
 
 import com.herofactory.prompt.repository.CustomVectorRepository;
+import com.herofactory.prompt.repository.VectorIndexManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -19,6 +20,7 @@ import java.util.List;
 public class DatabaseConfig {
     private final JdbcTemplate jdbcTemplate;
     private final CustomVectorRepository customVectorRepository;
+    private final VectorIndexManager vectorIndexManager;
 
     @EventListener(ApplicationReadyEvent.class)
     @Transactional
@@ -239,16 +241,9 @@ public class DatabaseConfig {
             }
         }
 
-        // Vector 인덱스 생성
+        // Vector 인덱스 생성 (코사인 거리 연산자 클래스, HNSW/IVFFlat 은 설정에 따름)
         try {
-            if (!indexExists("prompt_vector_idx")) {
-                jdbcTemplate.execute("""
-                    CREATE INDEX IF NOT EXISTS prompt_vector_idx 
-                    ON prompts USING ivfflat (embedding_vector vector_l2_ops)
-                    WITH (lists = 100)
-                """);
-                log.info("Created vector similarity index");
-            }
+            vectorIndexManager.createVectorIndex();
         } catch (Exception e) {
             log.warn("Failed to create vector index - will be created when data is available: {}", e.getMessage());
         }
@@ -2,7 +2,9 @@ package com.herofactory.config.security;
 
 import com.herofactory.common.logging.filter.ApiAccessLoggingFilter;
 import com.herofactory.login.service.TokenService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,6 +13,7 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -21,23 +24,41 @@ public class SecurityConfig {
     private final TokenService tokenService;
     private final ApiAccessLoggingFilter apiAccessLoggingFilter;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        RequestMatcher managementPortRequest = managementPortRequest();
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // DeferredResult/SseEmitter 응답은 ASYNC dispatch 에서 쓰임. 인증은 최초 요청에서 이미 통과했고
+                        // JwtAuthenticationFilter 는 async dispatch 를 건너뛰며 SecurityContext 도 저장하지 않으므로 여기서 허용
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/kakao/**", "/auth/reissue", "/test", "/images/**", "/swagger-ui/**",
                                 "/v3/api-docs/**", "/swagger-ui.html")
                         .permitAll()
+                        // 공개 포트에서는 health 만 허용. metrics/prometheus 는 외부에 열지 않는 management 포트로만 수집
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(managementPortRequest).permitAll()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider, tokenService),
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider, tokenService, managementPortRequest),
                         UsernamePasswordAuthenticationFilter.class)
         .addFilterAfter(apiAccessLoggingFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
+
+    // management.server.port 가 API 포트와 같으면 actuator 가 API 포트에 함께 뜨므로 포트로 구분하지 않음
+    private RequestMatcher managementPortRequest() {
+        boolean separatePort = managementPort > 0 && managementPort != serverPort;
+        return request -> separatePort && request.getLocalPort() == managementPort;
+    }
 }
\ No newline at end of file
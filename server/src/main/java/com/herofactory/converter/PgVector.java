@@ -0,0 +1,167 @@
+package com.herofactory.converter;
+
+import org.postgresql.PGConnection;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Oid;
+import org.postgresql.util.ByteConverter;
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * pgvector {@code vector} 타입을 float4 배열로 주고받는 코덱.
+ * <p>
+ * 바이너리 포맷(vector_send/vector_recv): int16 dim, int16 unused, float4 * dim (big-endian).
+ * 드라이버가 바이너리 전송을 지원하지 않는 경우 텍스트 포맷 "[1,2,3]"으로 동작합니다.
+ */
+public class PgVector extends PGobject implements PGBinaryObject {
+    public static final String TYPE_NAME = "vector";
+    private static final int HEADER_BYTES = 4;
+
+    private float[] values;
+
+    public PgVector() {
+        setType(TYPE_NAME);
+    }
+
+    public PgVector(float[] values) {
+        this();
+        this.values = values;
+    }
+
+    public static PgVector of(float[] values) {
+        return values == null ? null : new PgVector(values);
+    }
+
+    public float[] toArray() {
+        return values;
+    }
+
+    /**
+     * 커넥션 단위로 vector 타입을 등록하고 바이너리 송수신을 활성화합니다.
+     * 내부 맵에 대한 put 수준의 연산이라 statement 마다 호출해도 부담이 없습니다.
+     */
+    public static void register(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        pgConnection.addDataType(TYPE_NAME, PgVector.class);
+
+        BaseConnection baseConnection = connection.unwrap(BaseConnection.class);
+        int oid = baseConnection.getTypeInfo().getPGType(TYPE_NAME);
+        if (oid != Oid.UNSPECIFIED) {
+            baseConnection.getQueryExecutor().addBinarySendOid(oid);
+            baseConnection.getQueryExecutor().addBinaryReceiveOid(oid);
+        }
+    }
+
+    // 바이너리 포맷
+    @Override
+    public void setByteValue(byte[] bytes, int offset) throws SQLException {
+        int dim = ByteConverter.int2(bytes, offset);
+        float[] parsed = new float[dim];
+        int position = offset + HEADER_BYTES;
+        for (int i = 0; i < dim; i++) {
+            parsed[i] = ByteConverter.float4(bytes, position);
+            position += Float.BYTES;
+        }
+        this.values = parsed;
+    }
+
+    @Override
+    public int lengthInBytes() {
+        return values == null ? 0 : HEADER_BYTES + values.length * Float.BYTES;
+    }
+
+    @Override
+    public void toBytes(byte[] bytes, int offset) {
+        ByteConverter.int2(bytes, offset, values.length);
+        ByteConverter.int2(bytes, offset + 2, 0);
+        int position = offset + HEADER_BYTES;
+        for (float value : values) {
+            ByteConverter.float4(bytes, position, value);
+            position += Float.BYTES;
+        }
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[lengthInBytes()];
+        toBytes(bytes, 0);
+        return bytes;
+    }
+
+    // 텍스트 포맷
+    @Override
+    public void setValue(String value) {
+        this.values = value == null ? null : parse(value);
+    }
+
+    @Override
+    public String getValue() {
+        return format(values);
+    }
+
+    public static String format(float[] values) {
+        if (values == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(values.length * 12);
+        sb.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(values[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * "[1.0,2.0]" 또는 "{1.0,2.0}" 형식의 문자열을 파싱합니다. 정규식/split 없이 한 번만 순회합니다.
+     */
+    public static float[] parse(String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && (text.charAt(start) == '[' || text.charAt(start) == '{')) start++;
+        while (end > start && (text.charAt(end - 1) == ']' || text.charAt(end - 1) == '}')) end--;
+        if (start >= end) {
+            return new float[0];
+        }
+
+        int dim = 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == ',') dim++;
+        }
+
+        float[] parsed = new float[dim];
+        int index = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text.charAt(i) == ',') {
+                parsed[index++] = Float.parseFloat(text.substring(tokenStart, i).trim());
+                tokenStart = i + 1;
+            }
+        }
+        return parsed;
+    }
+
+    public boolean isNull() {
+        return values == null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PgVector other && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public PgVector clone() throws CloneNotSupportedException {
+        PgVector clone = (PgVector) super.clone();
+        clone.values = values == null ? null : values.clone();
+        return clone;
+    }
+}
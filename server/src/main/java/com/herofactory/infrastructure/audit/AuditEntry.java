@@ -0,0 +1,45 @@
+package com.herofactory.infrastructure.audit;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.time.LocalDateTime;
+
+// message_logs / prompt_logs 한 행. fallback 파일에는 type 필드와 함께 JSON 한 줄로 기록
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = AuditEntry.MessageLogEntry.class, name = "message"),
+        @JsonSubTypes.Type(value = AuditEntry.PromptLogEntry.class, name = "prompt")
+})
+public sealed interface AuditEntry permits AuditEntry.MessageLogEntry, AuditEntry.PromptLogEntry {
+
+    record MessageLogEntry(
+            String messageId,
+            String promptId,
+            String paymentId,
+            String status,
+            String errorMessage,
+            LocalDateTime createdAt
+    ) implements AuditEntry {
+    }
+
+    record PromptLogEntry(
+            String promptId,
+            String logType,
+            String content,
+            LocalDateTime createdAt
+    ) implements AuditEntry {
+    }
+
+    static MessageLogEntry promptMessage(String messageId, String promptId, String status, String errorMessage) {
+        return new MessageLogEntry(messageId, promptId, null, status, errorMessage, LocalDateTime.now());
+    }
+
+    static MessageLogEntry paymentMessage(String messageId, String paymentId, String status, String errorMessage) {
+        return new MessageLogEntry(messageId, null, paymentId, status, errorMessage, LocalDateTime.now());
+    }
+
+    static PromptLogEntry promptLog(String promptId, String logType, String content) {
+        return new PromptLogEntry(promptId, logType, content, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,315 @@
+package com.herofactory.infrastructure.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// message_logs / prompt_logs 비동기 배치 기록
+// 호출 측은 큐에 넣기만 하고, 전용 스레드가 batchSize 개가 모이거나 flushInterval 이 지나면 JDBC batch insert
+// 큐가 가득 차면 maxBlock 동안 호출 측을 대기시키고(backpressure), 그래도 자리가 없거나 DB 기록에 실패하면 fallback 파일에 남김
+// 배치는 한 트랜잭션으로 기록하고, 실패하면 한 건씩 다시 기록해 제약 조건 위반 항목만 버림 (fallback 파일에 남기지 않음)
+// fallback 파일은 다음 기동 시 다시 DB 로 옮김
+@Slf4j
+@Component
+public class AuditLogWriter {
+    private static final String INSERT_MESSAGE_LOG_SQL = """
+            INSERT INTO message_logs (message_id, prompt_id, payment_id, status, error_message,
+                                      retry_count, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+    // 조회 없이 prompt_id 만으로 기록. 없는 프롬프트의 로그는 FK 오류로 배치 전체가 실패하지 않도록 건너뜀
+    private static final String INSERT_PROMPT_LOG_SQL = """
+            INSERT INTO prompt_logs (prompt_id, log_type, content, created_at)
+            SELECT ?, ?, ?, ?
+            WHERE EXISTS (SELECT 1 FROM prompts WHERE prompt_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditEntry> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration maxBlock;
+    private final Duration shutdownTimeout;
+    private final Path fallbackFile;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter dropped;
+
+    public AuditLogWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${audit.log.queue-capacity:10000}") int queueCapacity,
+            @Value("${audit.log.batch-size:200}") int batchSize,
+            @Value("${audit.log.flush-interval:200ms}") Duration flushInterval,
+            @Value("${audit.log.max-block:50ms}") Duration maxBlock,
+            @Value("${audit.log.shutdown-timeout:10s}") Duration shutdownTimeout,
+            @Value("${audit.log.fallback-file:./audit/audit-fallback.jsonl}") String fallbackFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.maxBlock = maxBlock;
+        this.shutdownTimeout = shutdownTimeout;
+        this.fallbackFile = Path.of(fallbackFile);
+        this.flusher = new Thread(this::runFlushLoop, "audit-log-writer");
+        this.flusher.setDaemon(true);
+
+        Gauge.builder("audit.log.queued", queue, BlockingQueue::size)
+                .description("DB 기록 대기 중인 감사 로그 수")
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.log.written")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("audit.log.spilled")
+                .description("큐 포화 또는 DB 오류로 fallback 파일에 기록된 수")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("audit.log.dropped")
+                .description("제약 조건 위반으로 기록하지 못하고 버린 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        replayFallbackFile();
+        flusher.start();
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋 후에 큐에 넣음 (롤백되면 버림 - 기존의 같은 트랜잭션 내 save 와 동일)
+    // prompt_logs 는 prompts.prompt_id 를 참조하므로 커밋 전에 기록되면 안 됨
+    public void append(AuditEntry entry) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+            return;
+        }
+        enqueue(entry);
+    }
+
+    private void enqueue(AuditEntry entry) {
+        try {
+            if (queue.offer(entry, maxBlock.toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spill(List.of(entry));
+    }
+
+    private void runFlushLoop() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditEntry first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 첫 항목 이후 flushInterval 안에 batchSize 까지 모음
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        // 종료 시 남은 항목 기록 (실패하면 flush 가 fallback 파일로 보냄)
+        List<AuditEntry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+    }
+
+    private void flush(List<AuditEntry> batch) {
+        if (batch.size() > 1) {
+            try {
+                insertInTransaction(batch);
+                written.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to write {} audit log entries as a batch, retrying one by one: {}",
+                        batch.size(), e.getMessage());
+            }
+        }
+        flushOneByOne(batch);
+    }
+
+    // 배치 트랜잭션은 롤백됐으므로 한 건씩 다시 기록해도 중복되지 않음
+    // 제약 조건 위반(NOT NULL 등)은 다시 시도해도 실패하므로 버리고, 그 외 오류(연결 실패 등)가 나면 남은 항목을 fallback 파일로 보냄
+    private void flushOneByOne(List<AuditEntry> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            AuditEntry entry = batch.get(i);
+            try {
+                insertInTransaction(List.of(entry));
+                written.increment();
+            } catch (DataIntegrityViolationException e) {
+                log.error("Dropping audit log entry that violates a constraint: {}", entry, e);
+                dropped.increment();
+            } catch (Exception e) {
+                List<AuditEntry> rest = batch.subList(i, batch.size());
+                log.warn("Failed to write {} audit log entries, spilling to {}: {}",
+                        rest.size(), fallbackFile, e.getMessage());
+                spill(rest);
+                return;
+            }
+        }
+    }
+
+    // message_logs 와 prompt_logs 를 함께 커밋해 일부만 기록된 배치가 fallback 재처리로 중복되지 않도록 함
+    private void insertInTransaction(List<AuditEntry> entries) {
+        transactionTemplate.executeWithoutResult(tx -> insert(entries));
+    }
+
+    private void insert(List<AuditEntry> entries) {
+        List<Object[]> messageLogs = new ArrayList<>();
+        List<Object[]> promptLogs = new ArrayList<>();
+        for (AuditEntry entry : entries) {
+            if (entry instanceof AuditEntry.MessageLogEntry m) {
+                Timestamp createdAt = Timestamp.valueOf(m.createdAt());
+                messageLogs.add(new Object[]{
+                        m.messageId(), m.promptId(), m.paymentId(), m.status(), m.errorMessage(), createdAt, createdAt});
+            } else if (entry instanceof AuditEntry.PromptLogEntry p) {
+                promptLogs.add(new Object[]{
+                        p.promptId(), p.logType(), p.content(), Timestamp.valueOf(p.createdAt()), p.promptId()});
+            }
+        }
+        if (!messageLogs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MESSAGE_LOG_SQL, messageLogs);
+        }
+        if (!promptLogs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PROMPT_LOG_SQL, promptLogs);
+        }
+    }
+
+    private synchronized void spill(List<AuditEntry> entries) {
+        try {
+            Path parent = fallbackFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(fallbackFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditEntry entry : entries) {
+                    writer.write(objectMapper.writeValueAsString(entry));
+                    writer.newLine();
+                }
+            }
+            spilled.increment(entries.size());
+        } catch (IOException e) {
+            // 마지막 수단으로 애플리케이션 로그에 남김
+            log.error("Failed to spill {} audit log entries: {}", entries.size(), entries, e);
+        }
+    }
+
+    // 이전 실행에서 남은 fallback 파일을 DB 로 옮김. 이동 중 실패한 항목은 다시 fallback 파일에 기록됨
+    private void replayFallbackFile() {
+        Path replaying = fallbackFile.resolveSibling(fallbackFile.getFileName() + ".replaying");
+        try {
+            // 이전 재처리 도중 종료됐다면 그 파일부터 처리 (일부 중복 기록은 허용)
+            if (!Files.exists(replaying)) {
+                if (!Files.exists(fallbackFile)) {
+                    return;
+                }
+                Files.move(fallbackFile, replaying);
+            }
+
+            List<AuditEntry> entries = new ArrayList<>();
+            for (String line : Files.readAllLines(replaying, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, AuditEntry.class));
+                } catch (IOException e) {
+                    log.warn("Skipping malformed audit fallback entry: {}", line);
+                }
+            }
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                flush(entries.subList(from, Math.min(entries.size(), from + batchSize)));
+            }
+            Files.delete(replaying);
+            log.info("Replayed {} audit log entries from {}", entries.size(), replaying);
+        } catch (IOException e) {
+            log.error("Failed to replay audit fallback file {}", replaying, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+        }
+
+        // 제한 시간 안에 기록하지 못한 항목은 fallback 파일로
+        List<AuditEntry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Audit log writer did not drain in time, spilling {} entries to {}",
+                    remaining.size(), fallbackFile);
+            spill(remaining);
+        }
+    }
+}
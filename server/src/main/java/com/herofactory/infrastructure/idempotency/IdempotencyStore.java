@@ -0,0 +1,11 @@
+package com.herofactory.infrastructure.idempotency;
+
+// RabbitMQ 소비자의 중복 처리 판단 (재시도 횟수는 MessageRetrier 가 헤더로 전달)
+// 구현: RedisIdempotencyStore (기본, O(1)), JpaIdempotencyStore (message_logs 조회, Redis 장애 시 fallback)
+// messageId 가 없는 메시지는 서로 구분할 수 없으므로 항상 처리되지 않은 것으로 보고 처리 완료도 기록하지 않음
+public interface IdempotencyStore {
+
+    boolean isProcessed(String messageId);
+
+    void markProcessed(String messageId);
+}
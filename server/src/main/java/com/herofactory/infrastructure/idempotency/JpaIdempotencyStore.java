@@ -0,0 +1,24 @@
+package com.herofactory.infrastructure.idempotency;
+
+import com.herofactory.infrastructure.repository.MessageLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.StringUtils;
+
+// message_logs 기반. 처리 완료 기록은 소비자가 남기는 PROCESSED 로그를 그대로 사용
+@RequiredArgsConstructor
+public class JpaIdempotencyStore implements IdempotencyStore {
+    private final MessageLogRepository messageLogRepository;
+
+    @Override
+    public boolean isProcessed(String messageId) {
+        if (!StringUtils.hasText(messageId)) {
+            return false;
+        }
+        return messageLogRepository.existsByMessageIdAndStatus(messageId, "PROCESSED");
+    }
+
+    @Override
+    public void markProcessed(String messageId) {
+        // PROCESSED 메시지 로그가 곧 처리 완료 표시
+    }
+}
@@ -0,0 +1,52 @@
+package com.herofactory.infrastructure.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+// 처리 완료: SET mq:processed:{id} NX EX ttl
+// message_logs 크기와 무관하게 키 하나만 조회. Redis 오류 시 JPA 구현으로 대체
+@Slf4j
+public class RedisIdempotencyStore implements IdempotencyStore {
+    private static final String PROCESSED_KEY_PREFIX = "mq:processed:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdempotencyStore fallback;
+    private final Duration ttl;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate, IdempotencyStore fallback, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.fallback = fallback;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean isProcessed(String messageId) {
+        // 모든 id 없는 메시지가 mq:processed:null 키 하나를 공유해 중복으로 버려지지 않도록 함
+        if (!StringUtils.hasText(messageId)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(PROCESSED_KEY_PREFIX + messageId));
+        } catch (DataAccessException e) {
+            log.warn("Redis idempotency check failed, falling back to message_logs: {}", e.getMessage());
+            return fallback.isProcessed(messageId);
+        }
+    }
+
+    @Override
+    public void markProcessed(String messageId) {
+        if (!StringUtils.hasText(messageId)) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().setIfAbsent(PROCESSED_KEY_PREFIX + messageId, "1", ttl);
+        } catch (DataAccessException e) {
+            log.warn("Failed to mark message {} as processed in Redis: {}", messageId, e.getMessage());
+            fallback.markProcessed(messageId);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.herofactory.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// AMQP 메시지 본문(byte[])을 String 으로 바꾸지 않고 바로 역직렬화
+// 타입별 ObjectReader 를 한 번만 만들어 재사용 (ObjectReader 는 불변이라 스레드 간 공유 가능)
+@Component
+@RequiredArgsConstructor
+public class MessageBodyReader {
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public <T> T read(Message message, Class<T> type) throws IOException {
+        return readers.computeIfAbsent(type, objectMapper::readerFor).readValue(message.getBody());
+    }
+}
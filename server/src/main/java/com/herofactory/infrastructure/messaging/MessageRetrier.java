@@ -0,0 +1,69 @@
+package com.herofactory.infrastructure.messaging;
+
+import com.herofactory.config.amqp.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// 처리에 실패한 메시지를 바로 requeue 하지 않고 지연 재시도 큐로 다시 발행
+// 시도 횟수는 x-retry-attempt 헤더로 전달 (n 번째 재시도는 delays[n-1], 마지막 단계 이후로는 마지막 지연 반복)
+// 재시도를 maxRetries 번 하고도 실패하면 reject 해 작업 큐의 DLX(DLQ)로 보냄
+@Slf4j
+@Component
+public class MessageRetrier {
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+
+    private final ReliablePublisher reliablePublisher;
+    private final Duration[] delays;
+    private final int maxRetries;
+
+    public MessageRetrier(
+            ReliablePublisher reliablePublisher,
+            @Value("${messaging.retry.delays:5s,30s,5m}") Duration[] delays,
+            @Value("${messaging.retry.max-retries:3}") int maxRetries) {
+        this.reliablePublisher = reliablePublisher;
+        this.delays = delays;
+        this.maxRetries = maxRetries;
+    }
+
+    // failedAttempts: 이번 실패를 포함한 실패 횟수, delay: 재시도 지연 (DLQ 로 보냈으면 null)
+    public record Outcome(int failedAttempts, int maxRetries, Duration delay) {
+        public boolean deadLettered() {
+            return delay == null;
+        }
+    }
+
+    // 재발행이 브로커에 confirm 된 뒤에 원본을 ack (confirm 실패/시간 초과 시 예외, 원본은 ack 하지 않음)
+    // ack 직전에 종료되면 중복 전달될 수 있음 (소비자 멱등성 체크로 처리)
+    public Outcome retryOrDeadLetter(Message message, Channel channel, long tag, String workQueue) throws IOException {
+        int failedAttempts = attemptOf(message) + 1;
+        if (failedAttempts > maxRetries) {
+            channel.basicReject(tag, false);
+            return new Outcome(failedAttempts, maxRetries, null);
+        }
+
+        Duration delay = delays[Math.min(failedAttempts, delays.length) - 1];
+        // 수신 메시지는 receivedDeliveryMode 만 채워지고 deliveryMode 는 비어 있을 수 있으므로 PERSISTENT 를 명시
+        // (지연 큐에서 최대 수 분 대기하는 동안 브로커가 재시작돼도 유실되지 않도록)
+        Message retry = MessageBuilder.fromClonedMessage(message)
+                .setHeader(ATTEMPT_HEADER, failedAttempts)
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+        reliablePublisher.send(RabbitMQConfig.RETRY_EXCHANGE, RabbitMQConfig.retryQueueName(workQueue, delay), retry)
+                .join();
+        channel.basicAck(tag, false);
+        return new Outcome(failedAttempts, maxRetries, delay);
+    }
+
+    public static int attemptOf(Message message) {
+        Object value = message.getMessageProperties().getHeaders().get(ATTEMPT_HEADER);
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+}
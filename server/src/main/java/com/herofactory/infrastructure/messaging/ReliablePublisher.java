@@ -0,0 +1,105 @@
+package com.herofactory.infrastructure.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// publisher confirm 기반 비동기 발행
+// 전송 후 바로 반환하고, 브로커 ack 를 받으면 future 완료 / nack, 라우팅 실패(return), confirmTimeout 초과 시 예외로 완료
+// 브로커는 여러 건을 한 번에 ack(multiple) 하므로 메시지마다 왕복을 기다리지 않고 sendAll 로 묶어서 확인할 수 있음
+@Slf4j
+@Component
+public class ReliablePublisher {
+    private final RabbitTemplate rabbitTemplate;
+    private final Duration confirmTimeout;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Counter acked;
+    private final Counter failed;
+
+    public ReliablePublisher(
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${messaging.publish.confirm-timeout:10s}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeout = confirmTimeout;
+
+        Gauge.builder("rabbitmq.publish.pending", pending, AtomicInteger::get)
+                .description("브로커 confirm 대기 중인 메시지 수")
+                .register(meterRegistry);
+        this.acked = Counter.builder("rabbitmq.publish.confirms")
+                .tag("result", "ack")
+                .register(meterRegistry);
+        this.failed = Counter.builder("rabbitmq.publish.confirms")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    public record Outbound(String exchange, String routingKey, Message message) {
+    }
+
+    // correlation id 는 messageId 를 사용 (없으면 새로 생성)
+    public CompletableFuture<Void> send(String exchange, String routingKey, Message message) {
+        String messageId = message.getMessageProperties().getMessageId();
+        CorrelationData correlationData = messageId != null ? new CorrelationData(messageId) : new CorrelationData();
+        pending.incrementAndGet();
+
+        CompletableFuture<Void> result = correlationData.getFuture()
+                .orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenAccept(confirm -> {
+                    ReturnedMessage returned = correlationData.getReturned();
+                    if (returned != null) {
+                        throw new AmqpException(String.format("Message returned by broker: %d %s (exchange=%s, routingKey=%s)",
+                                returned.getReplyCode(), returned.getReplyText(), exchange, routingKey));
+                    }
+                    if (!confirm.isAck()) {
+                        throw new AmqpException("Message nacked by broker: " + confirm.getReason());
+                    }
+                });
+        result.whenComplete((ignored, e) -> {
+            pending.decrementAndGet();
+            if (e == null) {
+                acked.increment();
+            } else {
+                failed.increment();
+                if (e.getCause() instanceof TimeoutException) {
+                    log.warn("Publisher confirm timed out after {}: {}", confirmTimeout, correlationData.getId());
+                }
+            }
+        });
+
+        try {
+            rabbitTemplate.send(exchange, routingKey, message, correlationData);
+        } catch (AmqpException e) {
+            // 채널에 쓰지도 못한 경우 confirm 이 오지 않으므로 바로 실패 처리
+            correlationData.getFuture().completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // 모두 보낸 뒤 confirm 은 allOf 로 한 번에 기다림 (개별 결과는 각 future 로 확인)
+    public List<CompletableFuture<Void>> sendAll(List<Outbound> messages) {
+        return messages.stream()
+                .map(outbound -> send(outbound.exchange(), outbound.routingKey(), outbound.message()))
+                .toList();
+    }
+
+    public static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+}
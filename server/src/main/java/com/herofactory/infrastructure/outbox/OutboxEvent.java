@@ -0,0 +1,31 @@
+package com.herofactory.infrastructure.outbox;
+
+// outbox_events 한 행. API 트랜잭션 안에서 기록되고 OutboxRelay 가 브로커로 발행한 뒤 삭제
+// RABBITMQ: target = exchange, routingKey = routing key / KAFKA: target = topic, routingKey = record key
+public record OutboxEvent(
+        Long id,
+        Destination destination,
+        String target,
+        String routingKey,
+        String messageId,
+        String aggregateType,
+        String aggregateId,
+        String payload,
+        int attempts
+) {
+    public enum Destination {
+        RABBITMQ, KAFKA
+    }
+
+    public static OutboxEvent rabbit(String exchange, String routingKey, String messageId,
+                                     String aggregateType, String aggregateId, String payload) {
+        return new OutboxEvent(null, Destination.RABBITMQ, exchange, routingKey, messageId,
+                aggregateType, aggregateId, payload, 0);
+    }
+
+    public static OutboxEvent kafka(String topic, String key, String messageId,
+                                    String aggregateType, String aggregateId, String payload) {
+        return new OutboxEvent(null, Destination.KAFKA, topic, key, messageId,
+                aggregateType, aggregateId, payload, 0);
+    }
+}
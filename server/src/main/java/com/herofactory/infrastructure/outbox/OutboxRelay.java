@@ -0,0 +1,225 @@
+package com.herofactory.infrastructure.outbox;
+
+import com.herofactory.infrastructure.audit.AuditEntry;
+import com.herofactory.infrastructure.audit.AuditLogWriter;
+import com.herofactory.infrastructure.messaging.ReliablePublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// outbox_events 를 배치로 선점(lease)하고 한꺼번에 발행한 뒤 결과를 모아서 확인
+// 같은 aggregate 의 이벤트는 기록 순서대로 하나씩 발행하고, 앞 이벤트가 성공할 때까지 뒤 이벤트는 보내지 않음
+// 발행 확인(RabbitMQ confirm / Kafka ack)된 행은 삭제, 실패한 행은 backoff 후 재시도
+// 선점과 결과 반영은 각각 짧은 트랜잭션이고, 발행 확인을 기다리는 동안에는 DB 커넥션과 행 잠금을 잡지 않음
+// 여러 인스턴스가 동시에 실행해도 서로 다른 행을 가져감. 결과 반영 전에 종료되면 lease 이후 같은 메시지가 다시 발행될 수 있음 (소비자 멱등성 체크로 처리)
+@Slf4j
+@Component
+public class OutboxRelay {
+    public static final String AGGREGATE_PROMPT = "PROMPT";
+    public static final String AGGREGATE_PAYMENT = "PAYMENT";
+    public static final String AGGREGATE_ITEM = "ITEM";
+    private static final int SHORT_TRANSACTION_TIMEOUT_SECONDS = 5;
+
+    private final OutboxRepository outboxRepository;
+    private final ReliablePublisher reliablePublisher;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final AuditLogWriter auditLogWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration publishTimeout;
+    private final Duration lease;
+    private final Duration maxBackoff;
+
+    private final Counter published;
+    private final Counter failed;
+
+    public OutboxRelay(
+            OutboxRepository outboxRepository,
+            ReliablePublisher reliablePublisher,
+            KafkaTemplate<String, String> kafkaTemplate,
+            AuditLogWriter auditLogWriter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${outbox.relay.publish-timeout:15s}") Duration publishTimeout,
+            @Value("${outbox.relay.lease-margin:30s}") Duration lease,
+            @Value("${outbox.relay.max-backoff:5m}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.reliablePublisher = reliablePublisher;
+        this.kafkaTemplate = kafkaTemplate;
+        this.auditLogWriter = auditLogWriter;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.publishTimeout = publishTimeout;
+        // 발행 확인 대기(publishTimeout)가 끝난 뒤 결과를 반영할 시간까지 포함해 다른 relay 가 가져가지 않도록 함
+        this.lease = publishTimeout.plus(lease);
+        this.maxBackoff = maxBackoff;
+
+        // 선점/결과 반영은 짧은 쿼리 몇 개뿐이므로 짧게 제한
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(SHORT_TRANSACTION_TIMEOUT_SECONDS);
+
+        this.published = Counter.builder("outbox.relay.published")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.relay.failed")
+                .register(meterRegistry);
+    }
+
+    // 배치가 가득 차 있으면 쉬지 않고 다음 배치를 처리
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int relayed;
+            try {
+                relayed = relayBatch();
+            } catch (Exception e) {
+                log.error("Outbox relay failed", e);
+                return;
+            }
+            if (relayed < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(tx -> outboxRepository.claimBatch(batchSize, lease));
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        // 서로 다른 aggregate 는 모두 보낸 뒤 결과를 한 번에 기다림 (메시지마다 왕복하지 않음)
+        // 같은 aggregate 는 앞 이벤트가 확인된 뒤에 다음 이벤트를 보내고, 앞 이벤트가 실패하면 뒤 이벤트는 보내지 않음
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
+        Map<String, CompletableFuture<Outcome>> lastByAggregate = new HashMap<>();
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            String aggregate = event.aggregateType() + ":" + event.aggregateId();
+            CompletableFuture<Outcome> previous = lastByAggregate.get(aggregate);
+            // 발행 확인 콜백 스레드(Kafka producer I/O 등)에서 다음 send 를 호출하지 않도록 async 로 이어 붙임
+            CompletableFuture<Outcome> outcome = previous == null
+                    ? send(event, deadline)
+                    : previous.thenComposeAsync(prev -> prev.succeeded() && System.nanoTime() < deadline
+                            ? send(event, deadline)
+                            : CompletableFuture.completedFuture(Outcome.skipped(event)));
+            lastByAggregate.put(aggregate, outcome);
+            outcomes.add(outcome);
+        }
+        CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new)).join();
+
+        List<OutboxEvent> succeeded = new ArrayList<>(events.size());
+        List<OutboxEvent> skipped = new ArrayList<>();
+        Map<OutboxEvent, String> errors = new LinkedHashMap<>();
+        for (CompletableFuture<Outcome> future : outcomes) {
+            Outcome outcome = future.join();
+            OutboxEvent event = outcome.event();
+            if (outcome.skipped()) {
+                skipped.add(event);
+            } else if (outcome.error() == null) {
+                succeeded.add(event);
+            } else {
+                Throwable error = outcome.error();
+                String message = error.getCause() != null ? error.getCause().toString() : error.toString();
+                errors.put(event, message);
+                log.warn("Failed to publish outbox event {} (attempt {}): {}",
+                        event.messageId(), event.attempts() + 1, message);
+            }
+        }
+
+        // 보내지 않은 뒤 이벤트는 선점만 풀어 둠. 앞 이벤트가 재시도 대기 중인 동안에는 claim 조건에 걸려 다시 선점되지 않음
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (!succeeded.isEmpty()) {
+                outboxRepository.deleteAll(succeeded);
+            }
+            if (!errors.isEmpty()) {
+                outboxRepository.reschedule(errors, maxBackoff);
+            }
+            if (!skipped.isEmpty()) {
+                outboxRepository.release(skipped);
+            }
+        });
+        succeeded.forEach(this::saveSentLog);
+        published.increment(succeeded.size());
+        failed.increment(errors.size());
+        return events.size();
+    }
+
+    // 배치 전체가 publishTimeout 안에 끝나도록 남은 시간만큼만 발행 확인을 기다림 (lease 안에 결과 반영)
+    private CompletableFuture<Outcome> send(OutboxEvent event, long deadline) {
+        long remainingNanos = Math.max(0, deadline - System.nanoTime());
+        return publish(event)
+                .orTimeout(remainingNanos, TimeUnit.NANOSECONDS)
+                .handle((ignored, e) -> new Outcome(event, e, false));
+    }
+
+    private CompletableFuture<?> publish(OutboxEvent event) {
+        try {
+            return switch (event.destination()) {
+                case RABBITMQ -> reliablePublisher.send(event.target(), event.routingKey(), toAmqpMessage(event));
+                case KAFKA -> kafkaTemplate.send(event.target(), event.routingKey(), event.payload());
+            };
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Message toAmqpMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(event.messageId());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setTimestamp(new Date());
+        return new Message(event.payload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    // 감사 로그는 결과 반영(outbox 행 삭제) 커밋 후 AuditLogWriter 가 기록
+    private void saveSentLog(OutboxEvent event) {
+        try {
+            switch (event.aggregateType()) {
+                case AGGREGATE_PROMPT -> {
+                    auditLogWriter.append(AuditEntry.promptMessage(event.messageId(), event.aggregateId(), "SENT", null));
+                    auditLogWriter.append(AuditEntry.promptLog(event.aggregateId(), "MESSAGE_SENT", "메시지 큐로 전송 완료"));
+                }
+                case AGGREGATE_PAYMENT ->
+                        auditLogWriter.append(AuditEntry.paymentMessage(event.messageId(), event.aggregateId(), "SENT", null));
+                default -> {
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to save message log: {}", event.messageId(), e);
+        }
+    }
+
+    // error 가 null 이면 발행 확인, skipped 면 같은 aggregate 의 앞 이벤트가 실패해 보내지 않음
+    private record Outcome(OutboxEvent event, Throwable error, boolean skipped) {
+        static Outcome skipped(OutboxEvent event) {
+            return new Outcome(event, null, true);
+        }
+
+        boolean succeeded() {
+            return error == null && !skipped;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.herofactory.infrastructure.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_events (destination, target, routing_key, message_id,
+                                       aggregate_type, aggregate_id, payload, attempts, available_at, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """;
+    // 선점은 인스턴스 간에 한 번에 하나씩만 실행 (아래 aggregate 순서 조건이 커밋 전의 다른 선점을 보지 못하는 경합 방지)
+    private static final String CLAIM_LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+    private static final long CLAIM_LOCK_KEY = 0x6f7574626f78L;
+    // 시각 비교는 DB 시계 기준 (여러 인스턴스의 시계 차이 영향 없음)
+    // 가져간 행은 available_at 을 lease 만큼 미뤄 표시하고, 결과 반영 중인 행은 기다리지 않고 건너뜀
+    // 같은 aggregate 의 앞선 이벤트가 재시도 대기 중이거나 다른 relay 가 선점 중이면 뒤 이벤트는 가져가지 않음 (Kafka key 순서 유지)
+    private static final String CLAIM_SQL = """
+            UPDATE outbox_events
+            SET available_at = CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond'
+            WHERE id IN (
+                SELECT e.id
+                FROM outbox_events e
+                WHERE e.available_at <= CURRENT_TIMESTAMP
+                  AND NOT EXISTS (
+                      SELECT 1
+                      FROM outbox_events earlier
+                      WHERE earlier.aggregate_type = e.aggregate_type
+                        AND earlier.aggregate_id = e.aggregate_id
+                        AND earlier.id < e.id
+                        AND earlier.available_at > CURRENT_TIMESTAMP
+                  )
+                ORDER BY e.id
+                LIMIT ?
+                FOR UPDATE OF e SKIP LOCKED
+            )
+            RETURNING id, destination, target, routing_key, message_id, aggregate_type, aggregate_id, payload, attempts
+            """;
+    private static final String DELETE_SQL = "DELETE FROM outbox_events WHERE id = ?";
+    private static final String RESCHEDULE_SQL = """
+            UPDATE outbox_events
+            SET attempts = attempts + 1,
+                available_at = CURRENT_TIMESTAMP + LEAST(power(2, attempts), ?) * INTERVAL '1 second',
+                last_error = ?
+            WHERE id = ?
+            """;
+
+    // 앞선 이벤트 실패로 보내지 않은 행은 시도 횟수를 늘리지 않고 바로 선점 가능 상태로 되돌림
+    private static final String RELEASE_SQL = "UPDATE outbox_events SET available_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            OutboxEvent.Destination.valueOf(rs.getString("destination")),
+            rs.getString("target"),
+            rs.getString("routing_key"),
+            rs.getString("message_id"),
+            rs.getString("aggregate_type"),
+            rs.getString("aggregate_id"),
+            rs.getString("payload"),
+            rs.getInt("attempts")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 비즈니스 데이터와 같은 트랜잭션에서만 기록 (롤백되면 메시지도 남지 않음)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEvent event) {
+        jdbcTemplate.update(INSERT_SQL,
+                event.destination().name(),
+                event.target(),
+                event.routingKey(),
+                event.messageId(),
+                event.aggregateType(),
+                event.aggregateId(),
+                event.payload());
+    }
+
+    // 행 잠금은 선점하는 짧은 트랜잭션 동안만 유지. 커밋 후에는 lease 가 끝날 때까지 다른 relay 가 가져가지 않음
+    // 발행 결과를 반영하지 못하고 종료되면 lease 이후 다시 발행됨
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OutboxEvent> claimBatch(int limit, Duration lease) {
+        jdbcTemplate.query(CLAIM_LOCK_SQL, (ResultSetExtractor<Void>) rs -> null, CLAIM_LOCK_KEY);
+        List<OutboxEvent> events = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER, lease.toMillis(), limit));
+        // RETURNING 은 순서를 보장하지 않으므로 기록 순서로 정렬
+        events.sort(Comparator.comparingLong(OutboxEvent::id));
+        return events;
+    }
+
+    public void deleteAll(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, events.stream()
+                .map(event -> new Object[]{event.id()})
+                .toList());
+    }
+
+    public void release(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(RELEASE_SQL, events.stream()
+                .map(event -> new Object[]{event.id()})
+                .toList());
+    }
+
+    // 실패 횟수에 따라 1, 2, 4 ... 초 뒤 (최대 maxBackoff) 다시 발행 대상이 됨
+    public void reschedule(Map<OutboxEvent, String> errors, Duration maxBackoff) {
+        jdbcTemplate.batchUpdate(RESCHEDULE_SQL, errors.entrySet().stream()
+                .map(entry -> new Object[]{maxBackoff.toSeconds(), entry.getValue(), entry.getKey().id()})
+                .toList());
+    }
+}
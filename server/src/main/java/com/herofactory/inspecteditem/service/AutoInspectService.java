@@ -1,34 +1,160 @@
 package com.herofactory.inspecteditem.service;
 
+import com.herofactory.common.concurrent.MicroBatcher;
 import com.herofactory.config.openai.ChatGptClient;
 import com.herofactory.config.openai.ChatGptClient.ChatPolicy;
 import com.herofactory.inspecteditem.dto.AutoInspectionResult;
 import com.herofactory.kafka.CustomObjectMapper;
 import com.herofactory.shop.dto.ItemDto;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class AutoInspectService {
+    // 배치 응답은 아이템당 JSON 한 줄이므로 예상 완료 토큰을 아이템 수에 비례해 잡음
+    private static final int COMPLETION_TOKENS_PER_ITEM = 64;
+
     private final ChatGptClient chatGptClient;
     private final CustomObjectMapper objectMapper = new CustomObjectMapper();
+    private final MicroBatcher<ItemDto, AutoInspectionResult> inspectionBatcher;
+    private final InspectionResultCache inspectionResultCache;
 
-    public AutoInspectionResult inspect(ItemDto itemDto) {
-        String contentString = buildContentString(itemDto);
-        ChatPolicy chatPolicy = new ChatPolicy(
-                AutoInspectionPolicy.INSPECTION_INSTRUCTION,
-                AutoInspectionPolicy.EXAMPLE_CONTENT,
-                AutoInspectionPolicy.EXAMPLE_INSPECTION_RESULT
+    public AutoInspectService(
+            ChatGptClient chatGptClient,
+            InspectionResultCache inspectionResultCache,
+            @Value("${inspection.batch.max-size:10}") int batchMaxSize,
+            @Value("${inspection.batch.max-wait:50ms}") Duration batchMaxWait
+    ) {
+        this.chatGptClient = chatGptClient;
+        this.inspectionResultCache = inspectionResultCache;
+        this.inspectionBatcher = batchMaxSize > 1
+                ? new MicroBatcher<>("openai-inspection", this::inspectBatchAsync, batchMaxSize, batchMaxWait)
+                : null;
+    }
 
-        );
-        String resultString = chatGptClient.getResultForContentWithPolicy(
-                contentString,
-                chatPolicy
-        );
+    private static final ChatPolicy CHAT_POLICY = new ChatPolicy(
+            AutoInspectionPolicy.INSPECTION_INSTRUCTION,
+            AutoInspectionPolicy.EXAMPLE_CONTENT,
+            AutoInspectionPolicy.EXAMPLE_INSPECTION_RESULT
+    );
+
+    private static final ChatPolicy BATCH_CHAT_POLICY = new ChatPolicy(
+            AutoInspectionPolicy.BATCH_INSPECTION_INSTRUCTION,
+            AutoInspectionPolicy.BATCH_EXAMPLE_CONTENT,
+            AutoInspectionPolicy.BATCH_EXAMPLE_INSPECTION_RESULT
+    );
+
+    // 같은 이름/설명/카테고리로 검수한 적이 있으면 캐시된 결과를 사용 (가격, 이미지만 바뀐 경우)
+    // 호출 스레드를 막지 않음. 공용 rate limiter permit 을 비동기로 기다린 뒤 openAiExecutor 에서 호출
+    // 동시에 들어온 요청은 inspectionBatcher 가 모아 chat 요청 한 번으로 검수. 캐시 적중 건은 배치에 넣지 않음
+    public CompletableFuture<AutoInspectionResult> inspectAsync(ItemDto itemDto) {
+        String content = buildContentString(itemDto);
+        Optional<AutoInspectionResult> cached = inspectionResultCache.find(content);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        CompletableFuture<AutoInspectionResult> result = inspectionBatcher != null
+                ? inspectionBatcher.submit(itemDto)
+                : inspectSingleAsync(itemDto);
+        return result.thenApply(inspectionResult -> {
+            inspectionResultCache.put(content, inspectionResult);
+            return inspectionResult;
+        });
+    }
+
+    // 여러 아이템을 번호를 붙여 한 요청에 담고, 응답의 index 로 각 결과를 아이템에 다시 매칭
+    // 빠졌거나 중복되거나 형식이 잘못된 결과의 아이템만 단건 요청으로 다시 검수. 결과는 items 순서
+    public CompletableFuture<List<AutoInspectionResult>> inspectBatchAsync(List<ItemDto> items) {
+        if (items.size() == 1) {
+            return inspectSingleAsync(items.get(0)).thenApply(List::of);
+        }
+        return chatGptClient.getResultForContentWithPolicyAsync(
+                        buildBatchContentString(items),
+                        BATCH_CHAT_POLICY,
+                        COMPLETION_TOKENS_PER_ITEM * items.size())
+                .thenCompose(resultString -> resolveBatchResult(items, parseBatchResult(resultString, items.size())));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (inspectionBatcher != null) {
+            inspectionBatcher.close();
+        }
+    }
+
+    private CompletableFuture<AutoInspectionResult> inspectSingleAsync(ItemDto itemDto) {
+        return chatGptClient.getResultForContentWithPolicyAsync(buildContentString(itemDto), CHAT_POLICY)
+                .thenApply(this::parseResult);
+    }
+
+    private CompletableFuture<List<AutoInspectionResult>> resolveBatchResult(List<ItemDto> items,
+                                                                             AutoInspectionResult[] parsed) {
+        List<CompletableFuture<AutoInspectionResult>> futures = new ArrayList<>(items.size());
+        int fallbacks = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (parsed[i] != null) {
+                futures.add(CompletableFuture.completedFuture(parsed[i]));
+            } else {
+                futures.add(inspectSingleAsync(items.get(i)));
+                fallbacks++;
+            }
+        }
+        if (fallbacks > 0) {
+            log.warn("Batch inspection result mismatch - falling back to single inspection for {}/{} items",
+                    fallbacks, items.size());
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    // 응답 한 줄 = {"index":n,"status":...,"tags":[...]}. 매칭되지 않은 자리는 null
+    private AutoInspectionResult[] parseBatchResult(String resultString, int size) {
+        AutoInspectionResult[] results = new AutoInspectionResult[size];
+        boolean[] duplicated = new boolean[size];
+        for (String line : resultString.split("\\R")) {
+            line = line.trim();
+            if (!line.startsWith("{")) {
+                continue;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                int index = node.path("index").asInt(0);
+                String status = node.path("status").asText();
+                if (index < 1 || index > size || !(status.equals("GOOD") || status.equals("BAD"))
+                        || !node.path("tags").isArray()) {
+                    continue;
+                }
+                if (results[index - 1] != null) {
+                    // 같은 번호가 두 번 나오면 어느 쪽이 맞는지 알 수 없으므로 단건으로 다시 검수
+                    duplicated[index - 1] = true;
+                    continue;
+                }
+                ((ObjectNode) node).remove("index");
+                results[index - 1] = objectMapper.treeToValue(node, AutoInspectionResult.class);
+            } catch (JsonProcessingException e) {
+                log.debug("Skipping unparsable batch inspection line: {}", line);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (duplicated[i]) {
+                results[i] = null;
+            }
+        }
+        return results;
+    }
+
+    private AutoInspectionResult parseResult(String resultString) {
         try {
             return objectMapper.readValue(resultString, AutoInspectionResult.class);
         } catch (JsonProcessingException e) {
@@ -45,6 +171,18 @@ public class AutoInspectService {
         );
     }
 
+    // 아이템 하나가 한 줄이 되도록 줄바꿈은 공백으로 바꿈
+    private String buildBatchContentString(List<ItemDto> items) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                content.append('\n');
+            }
+            content.append(i + 1).append(". ").append(buildContentString(items.get(i)).replaceAll("\\R", " "));
+        }
+        return content.toString();
+    }
+
     static class AutoInspectionPolicy {
 
         private static final String INSPECTION_INSTRUCTION =
@@ -75,6 +213,32 @@ public class AutoInspectService {
                         "{\"status\":\"GOOD\",\"tags\":[\"강철\", \"검\", \"적\", \"피해\"]}\n" +
                         "{\"status\":\"GOOD\",\"tags\":[\"마법\", \"반지\", \"마법력\", \"악세서리\"]}";
 
+        private static final String BATCH_INSPECTION_INSTRUCTION = INSPECTION_INSTRUCTION + " " +
+                "The input contains several items, one per line, each prefixed with its number " +
+                "in the format 'N. [CategoryName] ItemName - ItemDescription.' " +
+                "Evaluate each item independently. " +
+                "Respond with exactly one JSON object per line for every item, in the same order, " +
+                "with the item's number in the 'index' field. Do not output anything else.";
 
+        private static final String BATCH_EXAMPLE_CONTENT = numberLines(EXAMPLE_CONTENT, false);
+
+        private static final String BATCH_EXAMPLE_INSPECTION_RESULT = numberLines(EXAMPLE_INSPECTION_RESULT, true);
+
+        // 단건 예시를 줄마다 번호를 붙인 배치 예시로 변환. 결과 예시는 '{' 바로 뒤에 index 필드를 끼워 넣음
+        private static String numberLines(String lines, boolean jsonResult) {
+            String[] split = lines.split("\n");
+            StringBuilder numbered = new StringBuilder();
+            for (int i = 0; i < split.length; i++) {
+                if (i > 0) {
+                    numbered.append('\n');
+                }
+                if (jsonResult) {
+                    numbered.append("{\"index\":").append(i + 1).append(',').append(split[i].substring(1));
+                } else {
+                    numbered.append(i + 1).append(". ").append(split[i]);
+                }
+            }
+            return numbered.toString();
+        }
     }
 }
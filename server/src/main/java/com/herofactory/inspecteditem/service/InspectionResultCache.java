@@ -0,0 +1,50 @@
+package com.herofactory.inspecteditem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.herofactory.common.cache.TwoLevelCache;
+import com.herofactory.inspecteditem.dto.AutoInspectionResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// 검수 요청 본문("[카테고리] 이름 - 설명") 원문 해시 -> 검수 결과
+// 대소문자/공백만 바꾼 표기도 검수 판단이 달라질 수 있으므로 정규화하지 않음
+// 가격, 이미지만 바꿔 아이템이 다시 들어오면 OpenAI 호출 없이 이전 검수 결과를 재사용
+// 검수 정책(프롬프트)을 바꾸면 ttl 이 지나야 새 기준이 반영되므로 필요하면 Redis 의 cache:auto-inspection:* 를 비움
+@Component
+public class InspectionResultCache {
+    private final boolean enabled;
+    private final TwoLevelCache<AutoInspectionResult> cache;
+
+    public InspectionResultCache(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${inspection.result-cache.enabled:true}") boolean enabled,
+            @Value("${inspection.result-cache.ttl:7d}") Duration ttl,
+            @Value("${inspection.result-cache.local-max-size:10000}") long localMaxSize) {
+        this.enabled = enabled;
+        this.cache = new TwoLevelCache<>("auto-inspection", AutoInspectionResult.class, ttl, localMaxSize,
+                redisTemplate, objectMapper, meterRegistry);
+    }
+
+    public Optional<AutoInspectionResult> find(String content) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return cache.get(TwoLevelCache.rawContentKey(content));
+    }
+
+    public void put(String content, AutoInspectionResult result) {
+        // 형식이 잘못된 응답은 다음 검수 때 다시 물어보도록 캐시하지 않음
+        if (!enabled || result == null || result.getTags() == null
+                || !("GOOD".equals(result.getStatus()) || "BAD".equals(result.getStatus()))) {
+            return;
+        }
+        cache.put(TwoLevelCache.rawContentKey(content), result);
+    }
+}
@@ -4,6 +4,7 @@ import com.herofactory.inspecteditem.dto.AutoInspectionResult;
 import com.herofactory.inspecteditem.dto.InspectedItemDto;
 import com.herofactory.shop.dto.ItemDto;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,12 +17,16 @@ public class ItemInspectService {
 
     private final AutoInspectService autoInspectService;
 
-    public InspectedItemDto inspectAndGetIfValid(ItemDto itemDto) {
-        log.debug("Starting inspection for itemDto: [name={}, description={}, categoryName={}]",
+    // 검수 결과가 BAD 면 null 로 완료
+    public CompletableFuture<InspectedItemDto> inspectAndGetIfValidAsync(ItemDto itemDto) {
+        log.debug("Starting async inspection for itemDto: [name={}, categoryName={}]",
                 itemDto.getName(),
-                itemDto.getDescription(),
                 itemDto.getCategoryName());
-        AutoInspectionResult inspectionResult = autoInspectService.inspect(itemDto);
+        return autoInspectService.inspectAsync(itemDto)
+                .thenApply(inspectionResult -> toInspectedItemIfValid(itemDto, inspectionResult));
+    }
+
+    private InspectedItemDto toInspectedItemIfValid(ItemDto itemDto, AutoInspectionResult inspectionResult) {
         log.debug("Inspection result: status=[{}], tags={}",
                 inspectionResult.getStatus(),
                 Arrays.toString(inspectionResult.getTags())
@@ -0,0 +1,77 @@
+package com.herofactory.kafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+// 배치 리스너가 받은 레코드를 파티션 스레드 하나로 순서대로 처리하지 않고 여러 건을 동시에 진행
+// 같은 key 의 레코드는 앞 레코드가 끝난 뒤에 시작(key 순서 보장), 다른 key 끼리는 maxInFlight 개까지 동시 처리
+// 앞 레코드가 실패하면 같은 key 의 뒤 레코드는 실행하지 않고 실패 처리
+// 결과의 failedIndex 는 배치에서 가장 앞에 있는 실패 레코드 위치. 그 앞까지만 커밋하도록 BatchListenerFailedException 에 넘김
+public class KeyOrderedBatchProcessor {
+    private final Semaphore inFlight;
+
+    public KeyOrderedBatchProcessor(int maxInFlight) {
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public record Result(int failedIndex, Throwable cause) {
+        public static final Result SUCCESS = new Result(-1, null);
+
+        public boolean failed() {
+            return failedIndex >= 0;
+        }
+    }
+
+    public <K, V> Result process(List<ConsumerRecord<K, V>> records,
+                                 Function<ConsumerRecord<K, V>, CompletableFuture<Void>> handler) throws InterruptedException {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(records.size());
+        Map<K, CompletableFuture<Void>> lastByKey = new HashMap<>();
+
+        for (ConsumerRecord<K, V> record : records) {
+            // 동시 처리 수가 가득 차면 리스너 스레드가 자리가 날 때까지 대기 (rate limiter 대기열이 넘치지 않도록)
+            inFlight.acquire();
+            CompletableFuture<Void> previous = record.key() == null ? null : lastByKey.get(record.key());
+            CompletableFuture<Void> future = previous == null
+                    ? start(record, handler)
+                    : previous.thenCompose(ignored -> start(record, handler));
+            future.whenComplete((ignored, e) -> inFlight.release());
+            futures.add(future);
+            if (record.key() != null) {
+                lastByKey.put(record.key(), future);
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> null)
+                .join();
+
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<Void> future = futures.get(i);
+            if (future.isCompletedExceptionally()) {
+                return new Result(i, unwrap(future.handle((ignored, e) -> e).join()));
+            }
+        }
+        return Result.SUCCESS;
+    }
+
+    // handler 가 future 를 돌려주기 전에 던진 예외도 실패한 future 로 바꿈
+    private static <K, V> CompletableFuture<Void> start(ConsumerRecord<K, V> record,
+                                                        Function<ConsumerRecord<K, V>, CompletableFuture<Void>> handler) {
+        try {
+            return handler.apply(record);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
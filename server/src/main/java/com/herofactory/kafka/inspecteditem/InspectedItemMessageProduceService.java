@@ -6,8 +6,10 @@ import static com.herofactory.common.Topic.INSPECTED_TOPIC;
 import com.herofactory.kafka.CustomObjectMapper;
 import com.herofactory.inspecteditem.dto.InspectedItemDto;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 @RequiredArgsConstructor
@@ -17,7 +19,8 @@ public class InspectedItemMessageProduceService  {
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final CustomObjectMapper objectMapper = new CustomObjectMapper();
 
-    public void sendMessage(InspectedItemDto inspectedItemDto) {
+    // 브로커 ack 를 받으면 완료되는 future. 호출 측이 ack 이후에만 원본 레코드 offset 을 커밋하도록 돌려줌
+    public CompletableFuture<SendResult<String, String>> sendMessage(InspectedItemDto inspectedItemDto) {
         InspectedItemMessage message = new InspectedItemMessage(
                 inspectedItemDto.getItemDto().getId(),
                 new InspectedItemMessage.Payload(
@@ -28,7 +31,7 @@ public class InspectedItemMessageProduceService  {
         );
 
         try {
-            kafkaTemplate.send(INSPECTED_TOPIC, message.getId().toString(), objectMapper.writeValueAsString(message));
+            return kafkaTemplate.send(INSPECTED_TOPIC, message.getId().toString(), objectMapper.writeValueAsString(message));
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -3,25 +3,31 @@ package com.herofactory.kafka.item;
 
 import static com.herofactory.common.Topic.ORIGINAL_TOPIC;
 
+import com.herofactory.infrastructure.outbox.OutboxEvent;
+import com.herofactory.infrastructure.outbox.OutboxRelay;
+import com.herofactory.infrastructure.outbox.OutboxRepository;
 import com.herofactory.kafka.CustomObjectMapper;
 import com.herofactory.shop.dto.ItemDto;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 @RequiredArgsConstructor
 @Component
 public class OriginalItemMessageProduceService {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxRepository outboxRepository;
     private final CustomObjectMapper objectMapper = new CustomObjectMapper();
 
+    // 호출 측(ItemService.saveItem) 트랜잭션에 outbox 행으로 기록. Kafka 발행은 OutboxRelay 가 담당
     public void sendMessage(ItemDto itemDto) {
         OriginalItemMessage message = convertToMessage(itemDto.getId(), itemDto);
 
         try {
-            kafkaTemplate.send(ORIGINAL_TOPIC, message.getId().toString(), objectMapper.writeValueAsString(message));
+            String key = message.getId().toString();
+            outboxRepository.append(OutboxEvent.kafka(ORIGINAL_TOPIC, key, UUID.randomUUID().toString(),
+                    OutboxRelay.AGGREGATE_ITEM, key, objectMapper.writeValueAsString(message)));
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
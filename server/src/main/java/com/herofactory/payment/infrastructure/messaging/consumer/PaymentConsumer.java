@@ -2,10 +2,12 @@ package com.herofactory.payment.infrastructure.messaging.consumer;
 
 import com.herofactory.config.amqp.RabbitMQConfig;
 import com.herofactory.infrastructure.entity.MessageLog;
+import com.herofactory.infrastructure.idempotency.IdempotencyStore;
+import com.herofactory.infrastructure.messaging.MessageBodyReader;
+import com.herofactory.infrastructure.messaging.MessageRetrier;
 import com.herofactory.infrastructure.repository.MessageLogRepository;
 import com.herofactory.payment.dto.PaymentMessage;
 import com.herofactory.payment.service.KakaoPayService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,32 +23,34 @@ import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PaymentConsumer {
     private final KakaoPayService kakaoPayService;
-    private final ObjectMapper objectMapper;
+    private final MessageBodyReader messageBodyReader;
     private final PlatformTransactionManager transactionManager;
     private final MessageLogRepository messageLogRepository;
+    private final IdempotencyStore idempotencyStore;
+    private final MessageRetrier messageRetrier;
 
-    @RabbitListener(queues = RabbitMQConfig.PAYMENT_QUEUE)
+    @RabbitListener(queues = RabbitMQConfig.PAYMENT_QUEUE, containerFactory = "paymentListenerContainerFactory")
     public void processPayment(Message message, Channel channel,
                                @Header(AmqpHeaders.DELIVERY_TAG) long tag) {
         String messageId = message.getMessageProperties().getMessageId();
         DefaultTransactionDefinition def = new DefaultTransactionDefinition();
         def.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
         TransactionStatus status = transactionManager.getTransaction(def);
+        // 실패 처리에서도 다시 파싱하지 않도록 한 번만 역직렬화해 넘김
+        PaymentMessage paymentMessage = null;
 
         try {
             // 메시지 처리 시작 로그
-            String messageJson = new String(message.getBody());
-            PaymentMessage paymentMessage = objectMapper.readValue(messageJson, PaymentMessage.class);
+            paymentMessage = messageBodyReader.read(message, PaymentMessage.class);
 
             // 멱등성 체크
-            if (isMessageProcessed(messageId)) {
+            if (idempotencyStore.isProcessed(messageId)) {
                 channel.basicAck(tag, false);
                 return;
             }
@@ -61,35 +65,29 @@ public class PaymentConsumer {
 
             channel.basicAck(tag, false);
             transactionManager.commit(status);
+            idempotencyStore.markProcessed(messageId);
 
         } catch (Exception e) {
             transactionManager.rollback(status);
-            handleProcessingFailure(message, channel, tag, messageId, e);
+            handleProcessingFailure(message, paymentMessage, channel, tag, messageId, e);
         }
     }
 
-    private boolean isMessageProcessed(String messageId) {
-        return messageLogRepository.existsByMessageIdAndStatus(messageId, "PROCESSED");
-    }
-
-    private void handleProcessingFailure(Message message, Channel channel,
+    private void handleProcessingFailure(Message message, PaymentMessage paymentMessage, Channel channel,
                                          long tag, String messageId, Exception e) {
         try {
-            Map<String, Object> headers = message.getMessageProperties().getHeaders();
-            Integer retryCount = (Integer) headers.getOrDefault("retry-count", 0);
-
             String errorMessage = "Payment processing failed: " + e.getMessage();
-            saveMessageLog(extractPaymentMessage(message), messageId, "FAILED", errorMessage);
+            saveMessageLog(paymentMessage, messageId, "FAILED", errorMessage);
 
-            if (retryCount >= 3) {
-                channel.basicNack(tag, false, false);
+            // 시도 횟수를 헤더에 담아 지연 재시도 큐로 다시 발행 (nack requeue 로는 헤더 변경이 전달되지 않음)
+            MessageRetrier.Outcome outcome = messageRetrier.retryOrDeadLetter(
+                    message, channel, tag, RabbitMQConfig.PAYMENT_QUEUE);
+            if (outcome.deadLettered()) {
                 log.warn("Message sent to DLQ after {} retries. MessageId: {}",
-                        retryCount, messageId);
+                        outcome.maxRetries(), messageId);
             } else {
-                headers.put("retry-count", retryCount + 1);
-                channel.basicNack(tag, false, true);
-                log.warn("Message requeued for retry. Attempt: {}. MessageId: {}",
-                        retryCount + 1, messageId);
+                log.warn("Message scheduled for retry in {}. Attempt: {}. MessageId: {}",
+                        outcome.delay(), outcome.failedAttempts(), messageId);
             }
         } catch (Exception ex) {
             log.error("Error handling message processing failure", ex);
@@ -101,15 +99,6 @@ public class PaymentConsumer {
         }
     }
 
-    private PaymentMessage extractPaymentMessage(Message message) {
-        try {
-            return objectMapper.readValue(new String(message.getBody()), PaymentMessage.class);
-        } catch (Exception e) {
-            log.error("Failed to extract payment message", e);
-            return null;
-        }
-    }
-
     private void saveMessageLog(PaymentMessage message, String messageId,
                                 String status, String errorMessage) {
         try {
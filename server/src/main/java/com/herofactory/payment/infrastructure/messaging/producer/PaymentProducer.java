@@ -2,33 +2,31 @@ package com.herofactory.payment.infrastructure.messaging.producer;
 
 import com.herofactory.config.amqp.RabbitMQConfig;
 import com.herofactory.common.exception.PaymentException;
-import com.herofactory.infrastructure.entity.MessageLog;
+import com.herofactory.infrastructure.audit.AuditEntry;
+import com.herofactory.infrastructure.audit.AuditLogWriter;
+import com.herofactory.infrastructure.outbox.OutboxEvent;
+import com.herofactory.infrastructure.outbox.OutboxRelay;
+import com.herofactory.infrastructure.outbox.OutboxRepository;
 import com.herofactory.infrastructure.repository.MessageLogRepository;
 import com.herofactory.payment.dto.PaymentMessage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.Message;
-import org.springframework.amqp.core.MessageProperties;
-import org.springframework.amqp.core.MessageDeliveryMode;
-import org.springframework.amqp.rabbit.connection.CorrelationData;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
 import java.util.UUID;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PaymentProducer {
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
     private final MessageLogRepository messageLogRepository;
+    private final AuditLogWriter auditLogWriter;
 
+    // 브로커로 직접 보내지 않고 호출 측 트랜잭션에 outbox 행으로 기록. 발행과 SENT 로그는 OutboxRelay 가 담당
     @Transactional
     public void sendPaymentMessage(PaymentMessage message) {
         String messageId = UUID.randomUUID().toString();
@@ -37,27 +35,17 @@ public class PaymentProducer {
             // 메시지 전송 전 로그 저장
             saveMessageLog(message, messageId, "SENDING", null);
 
-            MessageProperties properties = new MessageProperties();
-            properties.setMessageId(messageId);
-            properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
-            // LocalDateTime을 Date로 변환
-            properties.setTimestamp(Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant()));
-
             String messageJson = objectMapper.writeValueAsString(message);
-            Message amqpMessage = new Message(messageJson.getBytes(), properties);
-
-            CorrelationData correlationData = new CorrelationData(messageId);
-            rabbitTemplate.convertAndSend(
+            outboxRepository.append(OutboxEvent.rabbit(
                     RabbitMQConfig.PAYMENT_EXCHANGE,
                     RabbitMQConfig.PAYMENT_QUEUE,
-                    amqpMessage,
-                    correlationData
-            );
+                    messageId,
+                    OutboxRelay.AGGREGATE_PAYMENT,
+                    message.getPaymentId(),
+                    messageJson
+            ));
 
-            // 메시지 전송 성공 로그
-            saveMessageLog(message, messageId, "SENT", null);
-            log.info("Payment message sent successfully: {}", messageId);
+            log.info("Payment message queued in outbox: {}", messageId);
 
         } catch (Exception e) {
             String errorMessage = "Failed to send payment message: " + e.getMessage();
@@ -68,16 +56,10 @@ public class PaymentProducer {
         }
     }
 
+    // 커밋 후 AuditLogWriter 가 모아서 기록
     private void saveMessageLog(PaymentMessage message, String messageId, String status, String errorMessage) {
         try {
-            MessageLog log = MessageLog.builder()
-                    .messageId(messageId)
-                    .paymentId(message.getPaymentId())
-                    .promptId(null)  // payment 메시지는 promptId가 없음
-                    .status(status)
-                    .errorMessage(errorMessage)
-                    .build();
-            messageLogRepository.save(log);
+            auditLogWriter.append(AuditEntry.paymentMessage(messageId, message.getPaymentId(), status, errorMessage));
         } catch (Exception e) {
             log.error("Failed to save message log: {}", messageId, e);
         }
@@ -16,8 +16,14 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Tag(name = "Prompt", description = "프롬프트 관련 API")
 @Slf4j
@@ -27,6 +33,8 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class PromptController {
 
+    private static final long MAX_WAIT_SECONDS = 60;
+
     private final PromptService promptService;
 
     @Operation(
@@ -153,7 +161,8 @@ public class PromptController {
 
     @Operation(
             summary = "프롬프트 결과 조회",
-            description = "프롬프트 처리 결과를 조회합니다. 처리가 완료되지 않은 경우 202 상태 코드를 반환합니다."
+            description = "프롬프트 처리 결과를 조회합니다. waitSeconds 를 지정하면 처리가 끝날 때까지 최대 그 시간만큼 응답을 보류합니다(long-poll). "
+                    + "처리가 완료되지 않은 경우 202 상태 코드를 반환합니다."
     )
     @ApiResponses({
             @ApiResponse(
@@ -182,21 +191,78 @@ public class PromptController {
             )
     })
     @GetMapping("/{promptId}/result")
-    public ResponseEntity<PromptResponse> getPromptResult(
+    public DeferredResult<ResponseEntity<PromptResponse>> getPromptResult(
             @Parameter(
                     description = "프롬프트 ID",
                     required = true,
                     example = "550e8400-e29b-41d4-a716-446655440000"
             )
-            @PathVariable String promptId
+            @PathVariable String promptId,
+            @Parameter(description = "최대 대기 시간(초), 0 이면 즉시 응답")
+            @RequestParam(defaultValue = "0") long waitSeconds
     ) {
-        log.debug("Fetching prompt result for ID: {}", promptId);
-        PromptResponse response = promptService.getPromptStatus(promptId);
+        log.debug("Fetching prompt result for ID: {}, wait: {}s", promptId, waitSeconds);
+        long waitMillis = TimeUnit.SECONDS.toMillis(Math.min(Math.max(waitSeconds, 0), MAX_WAIT_SECONDS));
+
+        // 대기 중에는 DB 를 다시 읽지 않고, 구독 시점에 읽은 상태를 timeout 응답으로 사용
+        AtomicReference<PromptResponse> lastKnown = new AtomicReference<>();
+        DeferredResult<ResponseEntity<PromptResponse>> result = new DeferredResult<>(
+                waitMillis > 0 ? waitMillis : null,
+                () -> toResultResponse(lastKnown.get()));
+        Runnable unsubscribe = promptService.onPromptTerminal(
+                promptId, response -> result.setResult(toResultResponse(response)));
+        result.onCompletion(unsubscribe);
+
+        try {
+            PromptResponse current = promptService.getPromptStatus(promptId);
+            lastKnown.set(current);
+            if (current.getStatus().isTerminal() || waitMillis == 0) {
+                result.setResult(toResultResponse(current));
+            }
+        } catch (RuntimeException e) {
+            unsubscribe.run();
+            throw e;
+        }
+        return result;
+    }
 
+    private ResponseEntity<PromptResponse> toResultResponse(PromptResponse response) {
         if (response.getStatus().isTerminal()) {
             return ResponseEntity.ok(response);
         } else {
             return ResponseEntity.accepted().body(response);
         }
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "프롬프트 처리 스트리밍",
+            description = "SSE 로 처리 상태와 섹션별 부분 결과(partial)를 받고, 완료(completed) 또는 실패(failed) 이벤트 후 연결이 종료됩니다."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "스트림 연결 성공",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "인증되지 않은 사용자"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "프롬프트를 찾을 수 없음"
+            )
+    })
+    @GetMapping(value = "/{promptId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrompt(
+            @Parameter(
+                    description = "프롬프트 ID",
+                    required = true,
+                    example = "550e8400-e29b-41d4-a716-446655440000"
+            )
+            @PathVariable String promptId
+    ) {
+        log.debug("Opening prompt stream for ID: {}", promptId);
+        return promptService.streamPrompt(promptId);
+    }
+}
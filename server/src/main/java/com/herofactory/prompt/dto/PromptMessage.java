@@ -14,6 +14,5 @@ public class PromptMessage {
     private String promptId;
     private String memberId;
     private String originalPrompt;
-    private String sketchData;
     private PromptStatus status;
 }
@@ -9,5 +9,4 @@ import lombok.*;
 public class PromptRequest {
     private String memberId;
     private String originalPrompt;
-    private String sketchData;  // Base64 인코딩된 스케치 데이터
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.herofactory.prompt.entity;
 
+import com.herofactory.converter.VectorConverter;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
-import io.hypersistence.utils.hibernate.type.array.DoubleArrayType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
 import org.hibernate.annotations.Type;
 import com.herofactory.prompt.entity.enums.PromptStatus;
 
@@ -38,9 +39,11 @@ public class Prompt {
     @Column(columnDefinition = "TEXT")
     private String improvedPrompt;
 
-    @Type(DoubleArrayType.class)
+    // pgvector 는 float4 로 저장하므로 엔티티도 float[] 로 보관 (double[] 대비 힙 절반)
+    @Convert(converter = VectorConverter.class)
+    @ColumnTransformer(write = "?::vector")
     @Column(name = "embedding_vector", columnDefinition = "vector(1536)")
-    private double[] embeddingVector;
+    private float[] embeddingVector;
 
     @Type(JsonType.class)
     @Column(name = "category_keywords", columnDefinition = "jsonb")
@@ -1,15 +1,13 @@
 package com.herofactory.prompt.infrastructure.messaging.consumer;
 
 import com.herofactory.config.amqp.RabbitMQConfig;
-import com.herofactory.infrastructure.entity.MessageLog;
-import com.herofactory.infrastructure.repository.MessageLogRepository;
+import com.herofactory.infrastructure.audit.AuditEntry;
+import com.herofactory.infrastructure.audit.AuditLogWriter;
+import com.herofactory.infrastructure.idempotency.IdempotencyStore;
+import com.herofactory.infrastructure.messaging.MessageBodyReader;
+import com.herofactory.infrastructure.messaging.MessageRetrier;
 import com.herofactory.prompt.dto.PromptMessage;
-import com.herofactory.prompt.entity.Prompt;
-import com.herofactory.prompt.entity.PromptLog;
-import com.herofactory.prompt.repository.PromptLogRepository;
-import com.herofactory.prompt.repository.PromptRepository;
 import com.herofactory.prompt.service.PromptService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,143 +16,129 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.time.LocalDateTime;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PromptConsumer {
     private final PromptService promptService;
-    private final ObjectMapper objectMapper;
-    private final MessageLogRepository messageLogRepository;
-    private final PromptLogRepository promptLogRepository;
-    private final PromptRepository promptRepository;
+    private final MessageBodyReader messageBodyReader;
+    private final IdempotencyStore idempotencyStore;
+    private final MessageRetrier messageRetrier;
+    private final AuditLogWriter auditLogWriter;
 
-    @RabbitListener(queues = RabbitMQConfig.PROMPT_QUEUE)
+    @RabbitListener(queues = RabbitMQConfig.PROMPT_QUEUE, containerFactory = "promptListenerContainerFactory")
     public void processPrompt(Message message, Channel channel,
                               @Header(AmqpHeaders.DELIVERY_TAG) long tag) {
         String messageId = message.getMessageProperties().getMessageId();
+        // 실패 처리에서도 다시 파싱하지 않도록 한 번만 역직렬화해 넘김
+        PromptMessage promptMessage = null;
 
         try {
-            if (isMessageProcessed(messageId)) {
+            if (idempotencyStore.isProcessed(messageId)) {
                 channel.basicAck(tag, false);
                 return;
             }
 
-            PromptMessage promptMessage = extractPromptMessage(message);
+            promptMessage = extractPromptMessage(message);
             if (promptMessage == null) {
                 rejectMessage(channel, tag, messageId, "Failed to parse message");
                 return;
             }
 
-            Prompt prompt = promptRepository.findByPromptId(promptMessage.getPromptId())
-                    .orElseThrow(() -> new RuntimeException("프롬프트를 찾을 수 없습니다."));
-
-            // 로깅
+            // 로깅 (프롬프트가 없으면 processPrompt 의 선점 단계에서 실패 처리됨)
             saveMessageLog(promptMessage, messageId, "PROCESSING", null);
-            savePromptLog(prompt, "MESSAGE_PROCESSING", "메시지 처리 시작");
+            savePromptLog(promptMessage.getPromptId(), "MESSAGE_PROCESSING", "메시지 처리 시작");
 
             // 프롬프트 처리 - 서비스 내부에서 트랜잭션 관리
             promptService.processPrompt(promptMessage);
 
             // 성공 로깅
+            idempotencyStore.markProcessed(messageId);
             saveMessageLog(promptMessage, messageId, "PROCESSED", null);
-            savePromptLog(prompt, "MESSAGE_PROCESSED", "메시지 처리 완료");
+            savePromptLog(promptMessage.getPromptId(), "MESSAGE_PROCESSED", "메시지 처리 완료");
 
             channel.basicAck(tag, false);
 
         } catch (Exception e) {
             log.error("Error processing prompt message: {}", messageId, e);
-            handleProcessingFailure(message, channel, tag, messageId, e);
+            handleProcessingFailure(message, promptMessage, channel, tag, messageId, e);
         }
     }
 
-    private void handleProcessingFailure(Message message, Channel channel,
+    private void handleProcessingFailure(Message message, PromptMessage promptMessage, Channel channel,
                                          long tag, String messageId, Exception e) {
+        String promptId = promptMessage != null ? promptMessage.getPromptId() : null;
         try {
-            PromptMessage promptMessage = extractPromptMessage(message);
             saveMessageLog(promptMessage, messageId, "FAILED", e.getMessage());
+            savePromptLog(promptId, "MESSAGE_FAILED", "메시지 처리 실패: " + e.getMessage());
 
-            Prompt prompt = null;
-            if (promptMessage != null) {
-                prompt = promptRepository.findByPromptId(promptMessage.getPromptId()).orElse(null);
-                if (prompt != null) {
-                    savePromptLog(prompt, "MESSAGE_FAILED", "메시지 처리 실패: " + e.getMessage());
-                }
-            }
+            // 바로 requeue 하면 같은 rate limit 에 다시 걸리므로 지연 재시도 큐로 보냄
+            MessageRetrier.Outcome outcome = messageRetrier.retryOrDeadLetter(
+                    message, channel, tag, RabbitMQConfig.PROMPT_QUEUE);
 
-            int failedCount = messageLogRepository.countFailedAttempts(messageId);
-
-            if (failedCount >= 3) {
-                log.warn("Message {} failed {} times, sending to DLQ", messageId, failedCount);
-                if (prompt != null) {
-                    savePromptLog(prompt, "MESSAGE_FAILED",
-                            String.format("최대 재시도 횟수(%d) 초과로 DLQ로 이동", failedCount));
-                }
-                channel.basicReject(tag, false);
+            if (outcome.deadLettered()) {
+                log.warn("Message {} failed {} times, sent to DLQ", messageId, outcome.failedAttempts());
+                savePromptLog(promptId, "MESSAGE_FAILED",
+                        String.format("최대 재시도 횟수(%d) 초과로 DLQ로 이동", outcome.maxRetries()));
+                failPrompt(promptId, e);
             } else {
-                log.warn("Message {} failed, attempt {}/3, requeueing", messageId, failedCount);
-                if (prompt != null) {
-                    savePromptLog(prompt, "MESSAGE_REQUEUED",
-                            String.format("메시지 재처리 예약 (시도: %d/3)", failedCount));
-                }
-                channel.basicNack(tag, false, true);
+                log.warn("Message {} failed, retry {}/{} in {}", messageId,
+                        outcome.failedAttempts(), outcome.maxRetries(), outcome.delay());
+                savePromptLog(promptId, "MESSAGE_REQUEUED",
+                        String.format("메시지 재처리 예약 (시도: %d/%d, 지연: %s)",
+                                outcome.failedAttempts(), outcome.maxRetries(), outcome.delay()));
             }
         } catch (Exception ex) {
             log.error("Error handling message processing failure", ex);
             try {
                 channel.basicReject(tag, false);
+                failPrompt(promptId, e);
             } catch (Exception ioException) {
                 log.error("Failed to reject message", ioException);
             }
         }
     }
 
-    @Transactional(readOnly = true)
-    private boolean isMessageProcessed(String messageId) {
-        return messageLogRepository.existsByMessageIdAndStatus(messageId, "PROCESSED");
+    // DLQ 로 보낸 메시지의 프롬프트는 더 이상 처리되지 않으므로 FAILED 로 확정
+    private void failPrompt(String promptId, Exception e) {
+        if (promptId == null) {
+            return;
+        }
+        try {
+            promptService.failPrompt(promptId, e.getMessage());
+        } catch (Exception ex) {
+            log.error("Failed to mark prompt {} as failed", promptId, ex);
+        }
     }
 
     private PromptMessage extractPromptMessage(Message message) {
         try {
-            return objectMapper.readValue(new String(message.getBody()), PromptMessage.class);
+            return messageBodyReader.read(message, PromptMessage.class);
         } catch (Exception e) {
             log.error("Failed to extract prompt message", e);
             return null;
         }
     }
 
-    @Transactional
-    protected void saveMessageLog(PromptMessage message, String messageId, String status, String errorMessage) {
+    // 감사 로그는 AuditLogWriter 가 모아서 batch insert (처리 흐름에서 DB 왕복 제거)
+    private void saveMessageLog(PromptMessage message, String messageId, String status, String errorMessage) {
         try {
-            MessageLog log = MessageLog.builder()
-                    .messageId(messageId)
-                    .promptId(message != null ? message.getPromptId() : null)
-                    .status(status)
-                    .errorMessage(errorMessage)
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            messageLogRepository.save(log);
+            auditLogWriter.append(AuditEntry.promptMessage(
+                    messageId, message != null ? message.getPromptId() : null, status, errorMessage));
         } catch (Exception e) {
             log.error("Failed to save message log: {}", messageId, e);
         }
     }
 
-    @Transactional
-    protected void savePromptLog(Prompt prompt, String logType, String content) {
+    private void savePromptLog(String promptId, String logType, String content) {
+        if (promptId == null) {
+            return;
+        }
         try {
-            PromptLog log = PromptLog.builder()
-                    .prompt(prompt)
-                    .logType(logType)
-                    .content(content)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            promptLogRepository.save(log);
+            auditLogWriter.append(AuditEntry.promptLog(promptId, logType, content));
         } catch (Exception e) {
-            log.error("Failed to save prompt log: {}", prompt.getPromptId(), e);
+            log.error("Failed to save prompt log: {}", promptId, e);
         }
     }
 
@@ -3,39 +3,31 @@ package com.herofactory.prompt.infrastructure.messaging.producer;
 
 import com.herofactory.config.amqp.RabbitMQConfig;
 import com.herofactory.common.exception.PromptException;
-import com.herofactory.infrastructure.entity.MessageLog;
+import com.herofactory.infrastructure.audit.AuditEntry;
+import com.herofactory.infrastructure.audit.AuditLogWriter;
+import com.herofactory.infrastructure.outbox.OutboxEvent;
+import com.herofactory.infrastructure.outbox.OutboxRelay;
+import com.herofactory.infrastructure.outbox.OutboxRepository;
 import com.herofactory.infrastructure.repository.MessageLogRepository;
 import com.herofactory.prompt.dto.PromptMessage;
-import com.herofactory.prompt.entity.Prompt;
-import com.herofactory.prompt.entity.PromptLog;
-import com.herofactory.prompt.repository.PromptLogRepository;
-import com.herofactory.prompt.repository.PromptRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.Message;
-import org.springframework.amqp.core.MessageProperties;
-import org.springframework.amqp.core.MessageDeliveryMode;
-import org.springframework.amqp.rabbit.connection.CorrelationData;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
 import java.util.UUID;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PromptProducer {
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
     private final MessageLogRepository messageLogRepository;
-    private final PromptLogRepository promptLogRepository;
-    private final PromptRepository promptRepository;
+    private final AuditLogWriter auditLogWriter;
 
+    // 브로커로 직접 보내지 않고 호출 측 트랜잭션에 outbox 행으로 기록. 발행과 SENT 로그는 OutboxRelay 가 담당
     @Transactional
     public void sendPromptMessage(PromptMessage message) {
         String messageId = UUID.randomUUID().toString();
@@ -45,79 +37,45 @@ public class PromptProducer {
             saveMessageLog(message, messageId, "SENDING", null);
 
             // 비즈니스 로그
-            Prompt prompt = promptRepository.findByPromptId(message.getPromptId())
-                    .orElseThrow(() -> new PromptException("프롬프트를 찾을 수 없습니다."));
-            savePromptLog(prompt, "MESSAGE_SENT", "메시지 큐로 전송 시작");
-
-            MessageProperties properties = new MessageProperties();
-            properties.setMessageId(messageId);
-            properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
-            properties.setTimestamp(Date.from(LocalDateTime.now()
-                    .atZone(ZoneId.systemDefault()).toInstant()));
-
-            if (message.getSketchData() != null) {
-                compressSketchData(message);
-            }
+            savePromptLog(message, "MESSAGE_SENT", "메시지 큐로 전송 시작");
 
             String messageJson = objectMapper.writeValueAsString(message);
-            Message amqpMessage = new Message(messageJson.getBytes(), properties);
-
-            CorrelationData correlationData = new CorrelationData(messageId);
-            rabbitTemplate.convertAndSend(
+            outboxRepository.append(OutboxEvent.rabbit(
                     RabbitMQConfig.PROMPT_EXCHANGE,
                     RabbitMQConfig.PROMPT_QUEUE,
-                    amqpMessage,
-                    correlationData
-            );
+                    messageId,
+                    OutboxRelay.AGGREGATE_PROMPT,
+                    message.getPromptId(),
+                    messageJson
+            ));
 
-            saveMessageLog(message, messageId, "SENT", null);
-            savePromptLog(prompt, "MESSAGE_SENT", "메시지 큐로 전송 완료");
-
-            log.info("Prompt message sent successfully: {}", messageId);
+            log.info("Prompt message queued in outbox: {}", messageId);
 
         } catch (Exception e) {
             String errorMessage = "Failed to send prompt message: " + e.getMessage();
             saveMessageLog(message, messageId, "FAILED", errorMessage);
 
-            Prompt prompt = promptRepository.findByPromptId(message.getPromptId()).orElse(null);
-            if (prompt != null) {
-                savePromptLog(prompt, "MESSAGE_FAILED", "메시지 전송 실패: " + errorMessage);
-            }
+            savePromptLog(message, "MESSAGE_FAILED", "메시지 전송 실패: " + errorMessage);
 
             log.error("Failed to send prompt message: {}", messageId, e);
             throw new PromptException("메시지 전송 실패", e);
         }
     }
 
+    // 감사 로그는 AuditLogWriter 가 트랜잭션 커밋 후 모아서 batch insert
     private void saveMessageLog(PromptMessage message, String messageId, String status, String errorMessage) {
         try {
-            MessageLog log = MessageLog.builder()
-                    .messageId(messageId)
-                    .promptId(message.getPromptId())
-                    .paymentId(null)
-                    .status(status)
-                    .errorMessage(errorMessage)
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-            messageLogRepository.save(log);
+            auditLogWriter.append(AuditEntry.promptMessage(messageId, message.getPromptId(), status, errorMessage));
         } catch (Exception e) {
             log.error("Failed to save message log: {}", messageId, e);
         }
     }
 
-    private void savePromptLog(Prompt prompt, String logType, String content) {
+    private void savePromptLog(PromptMessage message, String logType, String content) {
         try {
-            PromptLog log = PromptLog.builder()
-                    .prompt(prompt)
-                    .logType(logType)
-                    .content(content)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-            promptLogRepository.save(log);
+            auditLogWriter.append(AuditEntry.promptLog(message.getPromptId(), logType, content));
         } catch (Exception e) {
-            log.error("Failed to save prompt log: {}", prompt.getPromptId(), e);
+            log.error("Failed to save prompt log: {}", message.getPromptId(), e);
         }
     }
 
@@ -125,18 +83,4 @@ public class PromptProducer {
     public boolean isMessageSent(String messageId) {
         return messageLogRepository.existsByMessageIdAndStatus(messageId, "SENT");
     }
-
-    private void compressSketchData(PromptMessage message) {
-        try {
-            if (message.getSketchData() != null &&
-                    message.getSketchData().length() > 1_000_000) {
-                log.info("Compressing large sketch data for prompt: {}",
-                        message.getPromptId());
-                log.warn("Large sketch data detected. Size: {}",
-                        message.getSketchData().length());
-            }
-        } catch (Exception e) {
-            log.error("Failed to compress sketch data", e);
-        }
-    }
 }
\ No newline at end of file
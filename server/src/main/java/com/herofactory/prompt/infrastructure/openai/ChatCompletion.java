@@ -0,0 +1,12 @@
+package com.herofactory.prompt.infrastructure.openai;
+
+// chat/completions 응답 본문과 토큰 사용량
+public record ChatCompletion(
+        String content,
+        int promptTokens,
+        int completionTokens
+) {
+    public int totalTokens() {
+        return promptTokens + completionTokens;
+    }
+}
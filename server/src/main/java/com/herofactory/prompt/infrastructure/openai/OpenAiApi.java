@@ -1,10 +1,14 @@
 package com.herofactory.prompt.infrastructure.openai;
 
+import com.herofactory.common.concurrent.MicroBatcher;
 import com.herofactory.common.exception.PromptException;
 import com.herofactory.common.exception.RateLimitException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.util.concurrent.RateLimiter;
+import com.herofactory.config.openai.util.OpenAiRateLimiter;
+import com.herofactory.config.openai.util.OpenAiRateLimiter.Lane;
+import com.herofactory.config.openai.util.OpenAiRateLimiterRegistry;
+import com.herofactory.config.openai.util.OpenAiRetrier;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -12,8 +16,18 @@ import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Slf4j
 @Getter
@@ -24,7 +38,18 @@ public class OpenAiApi {
     private final String embeddingModel;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-    private final RateLimiter rateLimiter;
+    // OpenAI 한도는 모델별이므로 chat / embedding 버킷을 따로 둠
+    private final OpenAiRateLimiter chatRateLimiter;
+    private final OpenAiRateLimiter embeddingRateLimiter;
+    private final OpenAiRetrier retrier;
+    private final MicroBatcher<String, float[]> embeddingBatcher;
+    private final Executor executor;
+
+    private static final int MAX_COMPLETION_TOKENS = 3072;
+    private static final int DEFAULT_EMBEDDING_BATCH_SIZE = 16;
+    private static final Duration DEFAULT_EMBEDDING_BATCH_WINDOW = Duration.ofMillis(20);
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final Duration DEFAULT_RETRY_BASE_DELAY = Duration.ofMillis(500);
 
     public static final String ANALYSIS_SYSTEM_PROMPT = """
     You are an expert AI image prompt engineer specializing in both photography and digital art. Your task is to analyze and transform the given Korean prompt into a highly detailed, professional prompt that will produce exceptional AI-generated images.
@@ -122,7 +147,12 @@ public class OpenAiApi {
             String model,
             String embeddingModel,
             RestTemplate restTemplate,
-            double requestsPerMinute) {
+            OpenAiRateLimiterRegistry rateLimiters,
+            int embeddingBatchSize,
+            Duration embeddingBatchWindow,
+            Executor executor,
+            Integer maxRetries,
+            Duration retryBaseDelay) {
         if (apiKey == null || apiKey.trim().isEmpty() || !apiKey.startsWith("sk-")) {
             throw new IllegalArgumentException("유효하지 않은 OpenAI API 키입니다.");
         }
@@ -132,23 +162,64 @@ public class OpenAiApi {
         this.embeddingModel = embeddingModel;
         this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
-        this.rateLimiter = RateLimiter.create(requestsPerMinute);
+        Objects.requireNonNull(rateLimiters, "rateLimiters");
+        this.chatRateLimiter = rateLimiters.forModel(apiKey, model);
+        this.embeddingRateLimiter = rateLimiters.forModel(apiKey, embeddingModel);
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.retrier = new OpenAiRetrier(
+                executor,
+                maxRetries != null ? maxRetries : DEFAULT_MAX_RETRIES,
+                retryBaseDelay != null ? retryBaseDelay : DEFAULT_RETRY_BASE_DELAY
+        );
+        // 배치 한 번이 요청 한 번이므로 rate limit 도 배치 단위로 소모
+        this.embeddingBatcher = new MicroBatcher<>(
+                "openai-embedding",
+                texts -> {
+                    int estimated = estimateEmbeddingTokens(texts);
+                    return callWithRetry(embeddingRateLimiter, estimated, () -> requestEmbeddings(texts, estimated));
+                },
+                embeddingBatchSize > 0 ? embeddingBatchSize : DEFAULT_EMBEDDING_BATCH_SIZE,
+                embeddingBatchWindow != null ? embeddingBatchWindow : DEFAULT_EMBEDDING_BATCH_WINDOW
+        );
 
         // API 키 검증 로그
         log.info("OpenAI API initialized with models - Chat: {}, Embedding: {}",
                 model, embeddingModel);
     }
 
-    public CompletableFuture<String> chatAsync(String systemPrompt, String userPrompt) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (!rateLimiter.tryAcquire()) {
-                throw new RateLimitException("API 호출 한도 초과");
-            }
-            return chat(systemPrompt, userPrompt);
-        });
+    // permit 을 기다리는 동안 스레드를 점유하지 않고, 획득 후에만 executor 에서 HTTP 호출
+    public CompletableFuture<ChatCompletion> chatAsync(String systemPrompt, String userPrompt) {
+        int estimated = estimateChatTokens(systemPrompt, userPrompt);
+        return callWithRetry(chatRateLimiter, estimated, () -> requestChat(systemPrompt, userPrompt, estimated));
     }
 
     public String chat(String systemPrompt, String userPrompt) {
+        return chatCompletion(systemPrompt, userPrompt).content();
+    }
+
+    public ChatCompletion chatCompletion(String systemPrompt, String userPrompt) {
+        return await(chatAsync(systemPrompt, userPrompt));
+    }
+
+    // permit 획득 -> 호출. 429 면 해당 모델 버킷이 Retry-After 동안 멈춘 상태에서 jitter 를 준 지수 백오프 후 재시도
+    // chat / embedding 모두 프롬프트 분석 lane 으로 대기 (같은 버킷을 쓰는 자동 검수와 번갈아 처리)
+    private <T> CompletableFuture<T> callWithRetry(OpenAiRateLimiter rateLimiter, int estimatedTokens,
+                                                   Supplier<T> call) {
+        return retrier.call(rateLimiter, Lane.PROMPT, estimatedTokens, call);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ChatCompletion requestChat(String systemPrompt, String userPrompt, int estimatedTokens) {
         String url = baseUrl + "/chat/completions";
 
         try {
@@ -172,10 +243,12 @@ public class OpenAiApi {
                     JsonNode.class
             );
 
+            chatRateLimiter.updateFromHeaders(response.getHeaders());
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                String content = extractContentFromResponse(response.getBody());
+                ChatCompletion completion = extractCompletionFromResponse(response.getBody());
+                chatRateLimiter.reconcile(estimatedTokens, completion.totalTokens());
                 log.debug("OpenAI API Response received successfully");
-                return content;
+                return completion;
             }
 
             throw new PromptException("OpenAI API 응답이 비어있습니다.");
@@ -191,6 +264,89 @@ public class OpenAiApi {
         }
     }
 
+    // stream=true 로 호출해 SSE 청크(data: {...})를 받는 즉시 onDelta 로 전달하고, 완료되면 전체 본문과 사용량을 반환
+    public CompletableFuture<ChatCompletion> chatStreamAsync(String systemPrompt, String userPrompt,
+                                                             Consumer<String> onDelta) {
+        int estimated = estimateChatTokens(systemPrompt, userPrompt);
+        return callWithRetry(chatRateLimiter, estimated,
+                () -> requestChatStream(systemPrompt, userPrompt, estimated, onDelta));
+    }
+
+    private ChatCompletion requestChatStream(String systemPrompt, String userPrompt, int estimatedTokens,
+                                             Consumer<String> onDelta) {
+        String url = baseUrl + "/chat/completions";
+
+        try {
+            Map<String, Object> requestBody = new HashMap<>(createChatRequestBody(systemPrompt, userPrompt));
+            requestBody.put("stream", true);
+            requestBody.put("stream_options", Map.of("include_usage", true));
+
+            ChatCompletion completion = restTemplate.execute(
+                    url,
+                    HttpMethod.POST,
+                    request -> {
+                        request.getHeaders().putAll(createHeaders());
+                        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                        request.getBody().write(objectMapper.writeValueAsBytes(requestBody));
+                    },
+                    response -> {
+                        chatRateLimiter.updateFromHeaders(response.getHeaders());
+                        return readChatStream(response.getBody(), onDelta);
+                    }
+            );
+
+            if (completion == null) {
+                throw new PromptException("OpenAI API 응답이 비어있습니다.");
+            }
+            chatRateLimiter.reconcile(estimatedTokens, completion.totalTokens());
+            return completion;
+
+        } catch (HttpClientErrorException e) {
+            log.error("OpenAI API Error - Status: {}, Response: {}",
+                    e.getStatusCode(), e.getResponseBodyAsString());
+            handleOpenAiError(e, "chat-stream");
+            throw new PromptException("OpenAI API 호출 실패: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error during OpenAI streaming call", e);
+            throw new PromptException("OpenAI API 스트리밍 호출 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    private ChatCompletion readChatStream(InputStream body, Consumer<String> onDelta) throws IOException {
+        StringBuilder content = new StringBuilder();
+        int promptTokens = 0;
+        int completionTokens = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith("data:")) {
+                continue;
+            }
+            String data = line.substring("data:".length()).trim();
+            if ("[DONE]".equals(data)) {
+                break;
+            }
+
+            JsonNode chunk = objectMapper.readTree(data);
+            JsonNode choices = chunk.path("choices");
+            if (choices.size() > 0) {
+                JsonNode delta = choices.get(0).path("delta").path("content");
+                if (delta.isTextual() && !delta.asText().isEmpty()) {
+                    content.append(delta.asText());
+                    onDelta.accept(delta.asText());
+                }
+            }
+            // include_usage 사용 시 마지막 청크에만 usage 가 포함됨
+            JsonNode usage = chunk.path("usage");
+            if (usage.isObject()) {
+                promptTokens = usage.path("prompt_tokens").asInt();
+                completionTokens = usage.path("completion_tokens").asInt();
+            }
+        }
+        return new ChatCompletion(content.toString(), promptTokens, completionTokens);
+    }
+
     private Map<String, Object> createChatRequestBody(String systemPrompt, String userPrompt) {
         Map<String, Object> systemMessage = Map.of("role", "system", "content", systemPrompt);
         Map<String, Object> userMessage = Map.of("role", "user", "content", userPrompt);
@@ -201,32 +357,37 @@ public class OpenAiApi {
                 "model", model,
                 "messages", List.of(systemMessage, userMessage),
                 "temperature", temperature,
-                "max_tokens", 3072,
+                "max_tokens", MAX_COMPLETION_TOKENS,
                 "presence_penalty", 0.1,
                 "frequency_penalty", 0.1
         );
     }
 
-    public CompletableFuture<double[]> embeddingsAsync(String text) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (!rateLimiter.tryAcquire()) {
-                throw new RateLimitException("API 호출 한도 초과");
-            }
-            return embeddings(text);
-        });
+    // 동시에 들어온 요청은 embeddingBatcher 가 모아서 /embeddings 한 번(input 배열)으로 전송
+    public CompletableFuture<float[]> embeddingsAsync(String text) {
+        return embeddingBatcher.submit(text);
     }
 
-    public double[] embeddings(String text) {
+    public float[] embeddings(String text) {
+        return embeddings(List.of(text)).get(0);
+    }
+
+    public List<float[]> embeddings(List<String> texts) {
+        int estimated = estimateEmbeddingTokens(texts);
+        return await(callWithRetry(embeddingRateLimiter, estimated, () -> requestEmbeddings(texts, estimated)));
+    }
+
+    private List<float[]> requestEmbeddings(List<String> texts, int estimatedTokens) {
         String url = baseUrl + "/embeddings";
 
         try {
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("model", embeddingModel);
-            requestBody.put("input", text);
+            requestBody.put("input", texts);
 
             if (log.isDebugEnabled()) {
-                log.debug("Embedding request - Model: {}, Input length: {}",
-                        embeddingModel, text.length());
+                log.debug("Embedding request - Model: {}, Inputs: {}",
+                        embeddingModel, texts.size());
             }
 
             HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, createHeaders());
@@ -238,8 +399,10 @@ public class OpenAiApi {
                     JsonNode.class
             );
 
+            embeddingRateLimiter.updateFromHeaders(response.getHeaders());
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return extractEmbeddingFromResponse(response.getBody());
+                embeddingRateLimiter.reconcile(estimatedTokens, response.getBody().path("usage").path("total_tokens").asInt());
+                return extractEmbeddingsFromResponse(response.getBody(), texts.size());
             }
 
             throw new PromptException("임베딩 생성 실패");
@@ -254,6 +417,8 @@ public class OpenAiApi {
     }
 
     private void handleOpenAiError(HttpClientErrorException e, String operation) {
+        OpenAiRateLimiter rateLimiter = operation.equals("embedding") ? embeddingRateLimiter : chatRateLimiter;
+        rateLimiter.updateFromHeaders(e.getResponseHeaders());
         String responseBody = e.getResponseBodyAsString();
         HttpStatusCode statusCode = e.getStatusCode();
         HttpStatus status = HttpStatus.resolve(statusCode.value());
@@ -268,6 +433,11 @@ public class OpenAiApi {
             log.error("{} API Error - Type: {}, Code: {}, Message: {}",
                     operation, errorType, errorCode, errorMessage);
 
+            // 크레딧 소진은 기다려도 풀리지 않으므로 재시도 대상에서 제외
+            if ("insufficient_quota".equals(errorCode)) {
+                throw new PromptException("OpenAI 사용 한도(크레딧)가 소진되었습니다: " + errorMessage);
+            }
+
             if ("model_not_found".equals(errorCode)) {
                 throw new PromptException(String.format(
                         "모델 접근 권한이 없습니다 (%s): %s",
@@ -293,39 +463,81 @@ public class OpenAiApi {
         switch (status) {
             case UNAUTHORIZED -> throw new PromptException("API 키가 유효하지 않습니다: " + responseBody);
             case FORBIDDEN -> throw new PromptException("API 접근 권한이 없습니다. OpenAI API 키와 모델 접근 권한을 확인해주세요: " + responseBody);
-            case TOO_MANY_REQUESTS -> throw new RateLimitException("API 호출 한도를 초과했습니다: " + responseBody);
+            case TOO_MANY_REQUESTS -> {
+                Duration retryAfter = OpenAiRateLimiter.retryAfter(e.getResponseHeaders());
+                rateLimiter.pause(retryAfter);
+                throw new RateLimitException("API 호출 한도를 초과했습니다: " + responseBody, retryAfter);
+            }
             case BAD_REQUEST -> throw new PromptException("잘못된 요청입니다: " + responseBody);
             default -> throw new PromptException("API 호출 중 오류가 발생했습니다 (" + status + "): " + responseBody);
         }
     }
 
-    private String extractContentFromResponse(JsonNode responseBody) {
-        return responseBody
+    private ChatCompletion extractCompletionFromResponse(JsonNode responseBody) {
+        String content = responseBody
                 .path("choices")
                 .get(0)
                 .path("message")
                 .path("content")
                 .asText();
+        JsonNode usage = responseBody.path("usage");
+        return new ChatCompletion(
+                content,
+                usage.path("prompt_tokens").asInt(0),
+                usage.path("completion_tokens").asInt(0)
+        );
     }
 
-    private double[] extractEmbeddingFromResponse(JsonNode responseBody) {
+    static float[] extractEmbeddingFromResponse(JsonNode responseBody) {
         try {
-            JsonNode embeddingData = responseBody
-                    .path("data")
-                    .get(0)
-                    .path("embedding");
-
-            double[] embeddings = new double[embeddingData.size()];
-            for (int i = 0; i < embeddingData.size(); i++) {
-                embeddings[i] = embeddingData.get(i).asDouble();
+            return toFloatArray(responseBody.path("data").get(0).path("embedding"));
+        } catch (Exception e) {
+            log.error("임베딩 응답 파싱 중 오류 발생", e);
+            throw new PromptException("임베딩 응답 파싱 실패", e);
+        }
+    }
+
+    // 응답 data 순서는 보장되지 않으므로 index 필드로 입력 순서에 맞춰 배치
+    static List<float[]> extractEmbeddingsFromResponse(JsonNode responseBody, int expected) {
+        try {
+            float[][] embeddings = new float[expected][];
+            for (JsonNode item : responseBody.path("data")) {
+                embeddings[item.path("index").asInt()] = toFloatArray(item.path("embedding"));
             }
-            return embeddings;
+            for (int i = 0; i < expected; i++) {
+                if (embeddings[i] == null) {
+                    throw new PromptException("임베딩 응답 누락: index " + i);
+                }
+            }
+            return Arrays.asList(embeddings);
+        } catch (PromptException e) {
+            throw e;
         } catch (Exception e) {
             log.error("임베딩 응답 파싱 중 오류 발생", e);
             throw new PromptException("임베딩 응답 파싱 실패", e);
         }
     }
 
+    // OpenAI 임베딩은 float 정밀도이므로 float[] 로 그대로 보관
+    private static float[] toFloatArray(JsonNode embeddingData) {
+        float[] embeddings = new float[embeddingData.size()];
+        for (int i = 0; i < embeddingData.size(); i++) {
+            embeddings[i] = embeddingData.get(i).floatValue();
+        }
+        return embeddings;
+    }
+
+    // OpenAI 는 요청 시점에 프롬프트 토큰 + max_tokens 를 TPM 한도에서 차감하므로 같은 기준으로 추정
+    private static int estimateChatTokens(String systemPrompt, String userPrompt) {
+        return OpenAiRateLimiter.estimateTokens(systemPrompt)
+                + OpenAiRateLimiter.estimateTokens(userPrompt)
+                + MAX_COMPLETION_TOKENS;
+    }
+
+    private static int estimateEmbeddingTokens(List<String> texts) {
+        return texts.stream().mapToInt(OpenAiRateLimiter::estimateTokens).sum();
+    }
+
     private HttpHeaders createHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -336,4 +548,9 @@ public class OpenAiApi {
     public String analyzePrompt(String prompt) {
         return chat(ANALYSIS_SYSTEM_PROMPT, prompt);
     }
+
+    // 빈 종료 시 대기 중인 임베딩 배치를 전송하고 스케줄러 정리
+    public void close() {
+        embeddingBatcher.close();
+    }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.herofactory.prompt.repository;
 
+import com.herofactory.converter.PgVector;
 import com.herofactory.prompt.entity.Prompt;
 import com.herofactory.prompt.entity.enums.PromptStatus;
+import com.herofactory.prompt.repository.projection.PromptResultView;
+import com.herofactory.prompt.repository.projection.PromptStatusView;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +13,11 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Slf4j
@@ -18,6 +26,7 @@ import java.util.*;
 public class CustomVectorRepository {
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
+    private final VectorIndexManager vectorIndexManager;
 
     // JSON 파싱 메서드들
     private List<String> parseJsonToStringList(String json) {
@@ -53,8 +62,38 @@ public class CustomVectorRepository {
         }
     }
 
+    // 조회 목적별 컬럼 목록 - 상태 확인마다 1536차원 vector 와 JSONB 를 전송/파싱하지 않도록 필요한 컬럼만 읽음
+    private static final String STATUS_COLUMNS = "id, prompt_id, status, error_message, updated_at";
+    private static final String RESULT_COLUMNS = """
+            prompt_id, member_id, original_prompt, improved_prompt, keywords, category_keywords,
+            status, error_message, created_at, updated_at, completed_at""";
+    private static final String FULL_COLUMNS = RESULT_COLUMNS + ", id, embedding_vector";
+
+    private final RowMapper<PromptStatusView> statusRowMapper = (rs, rowNum) -> new PromptStatusView(
+            rs.getObject("id", UUID.class),
+            rs.getString("prompt_id"),
+            PromptStatus.valueOf(rs.getString("status")),
+            rs.getString("error_message"),
+            rs.getTimestamp("updated_at").toLocalDateTime()
+    );
+
+    private final RowMapper<PromptResultView> resultRowMapper = (rs, rowNum) -> new PromptResultView(
+            rs.getString("prompt_id"),
+            rs.getString("member_id"),
+            rs.getString("original_prompt"),
+            rs.getString("improved_prompt"),
+            parseJsonToStringList(rs.getString("keywords")),
+            parseJsonToCategoryKeywords(rs.getString("category_keywords")),
+            PromptStatus.valueOf(rs.getString("status")),
+            rs.getString("error_message"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at").toLocalDateTime(),
+            toLocalDateTime(rs.getTimestamp("completed_at"))
+    );
+
     private final RowMapper<Prompt> promptRowMapper = (rs, rowNum) -> {
         Prompt prompt = new Prompt();
+        prompt.setId(rs.getObject("id", UUID.class));
         prompt.setPromptId(rs.getString("prompt_id"));
         prompt.setMemberId(rs.getString("member_id"));
         prompt.setOriginalPrompt(rs.getString("original_prompt"));
@@ -64,17 +103,13 @@ public class CustomVectorRepository {
         prompt.setKeywords(parseJsonToStringList(rs.getString("keywords")));
         prompt.setCategoryKeywords(parseJsonToCategoryKeywords(rs.getString("category_keywords")));
 
-        // Vector 처리
+        // Vector 처리 - 바이너리 수신 시 PgVector, 텍스트 수신 시 PGobject 로 넘어옴
         try {
             Object vectorObj = rs.getObject("embedding_vector");
-            if (vectorObj != null) {
-                String vectorStr = vectorObj.toString().replaceAll("[\\[\\]{}]", "");
-                String[] values = vectorStr.split(",");
-                double[] vector = new double[values.length];
-                for (int i = 0; i < values.length; i++) {
-                    vector[i] = Double.parseDouble(values[i].trim());
-                }
-                prompt.setEmbeddingVector(vector);
+            if (vectorObj instanceof PgVector vector) {
+                prompt.setEmbeddingVector(vector.toArray());
+            } else if (vectorObj != null) {
+                prompt.setEmbeddingVector(PgVector.parse(vectorObj.toString()));
             }
         } catch (Exception e) {
             log.warn("Error parsing embedding vector: {}", e.getMessage());
@@ -83,17 +118,16 @@ public class CustomVectorRepository {
         prompt.setStatus(PromptStatus.valueOf(rs.getString("status")));
         prompt.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
         prompt.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-
-        java.sql.Timestamp completedAt = rs.getTimestamp("completed_at");
-        if (completedAt != null) {
-            prompt.setCompletedAt(completedAt.toLocalDateTime());
-        }
-
+        prompt.setCompletedAt(toLocalDateTime(rs.getTimestamp("completed_at")));
         prompt.setErrorMessage(rs.getString("error_message"));
 
         return prompt;
     };
 
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
     public void initializeDatabase() {
         try {
             // Enable vector extension
@@ -208,14 +242,9 @@ public class CustomVectorRepository {
             )
             """, Boolean.class);
 
-        if (Boolean.TRUE.equals(hasVectorColumn) && !indexExists("prompt_vector_idx")) {
+        if (Boolean.TRUE.equals(hasVectorColumn)) {
             try {
-                jdbcTemplate.execute("""
-                    CREATE INDEX prompt_vector_idx 
-                    ON prompts USING ivfflat (embedding_vector vector_l2_ops) 
-                    WITH (lists = 100)
-                """);
-                log.info("Created vector similarity index");
+                vectorIndexManager.createVectorIndex();
             } catch (Exception e) {
                 log.warn("Failed to create vector index - will be created when data is available", e);
             }
@@ -248,18 +277,13 @@ public class CustomVectorRepository {
         }
     }
 
-    public void savePromptWithVector(Prompt prompt) {
-        String vectorStr = vectorToString(prompt.getEmbeddingVector());
-
-        // vector 타입 캐스팅을 SQL 문자열에 직접 포함
-        String sql = String.format("""
+    // vector 는 SQL 문자열에 포함하지 않고 파라미터로 바인딩하여 서버측 prepared statement 를 재사용
+    private static final String UPSERT_PROMPT_SQL = """
     INSERT INTO prompts (
-        id, prompt_id, member_id, original_prompt, improved_prompt, 
+        id, prompt_id, member_id, original_prompt, improved_prompt,
         embedding_vector, status, created_at, updated_at,
         completed_at, error_message, keywords, category_keywords
-    ) VALUES (?, ?, ?, ?, ?, 
-             %s::vector(1536),
-             ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb)
+    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb)
     ON CONFLICT (prompt_id) DO UPDATE SET
         improved_prompt = EXCLUDED.improved_prompt,
         embedding_vector = EXCLUDED.embedding_vector,
@@ -269,53 +293,133 @@ public class CustomVectorRepository {
         error_message = EXCLUDED.error_message,
         keywords = EXCLUDED.keywords,
         category_keywords = EXCLUDED.category_keywords
-    """,
-                vectorStr == null ? "NULL" : "'" + vectorStr + "'");
+    """;
+
+    public void savePromptWithVector(Prompt prompt) {
+        PgVector vector = PgVector.of(prompt.getEmbeddingVector());
+        String keywords = convertToJsonString(prompt.getKeywords());
+        String categoryKeywords = convertToJsonString(prompt.getCategoryKeywords());
 
         try {
-            jdbcTemplate.update(sql,
-                    UUID.randomUUID(),
-                    prompt.getPromptId(),
-                    prompt.getMemberId(),
-                    prompt.getOriginalPrompt(),
-                    prompt.getImprovedPrompt(),
-                    prompt.getStatus().name(),
-                    prompt.getCreatedAt(),
-                    prompt.getUpdatedAt(),
-                    prompt.getCompletedAt(),
-                    prompt.getErrorMessage(),
-                    convertToJsonString(prompt.getKeywords()),
-                    convertToJsonString(prompt.getCategoryKeywords())
-            );
+            jdbcTemplate.update(UPSERT_PROMPT_SQL, ps -> {
+                PgVector.register(ps.getConnection());
+                ps.setObject(1, UUID.randomUUID());
+                ps.setString(2, prompt.getPromptId());
+                ps.setString(3, prompt.getMemberId());
+                ps.setString(4, prompt.getOriginalPrompt());
+                ps.setString(5, prompt.getImprovedPrompt());
+                setVector(ps, 6, vector);
+                ps.setString(7, prompt.getStatus().name());
+                ps.setObject(8, prompt.getCreatedAt());
+                ps.setObject(9, prompt.getUpdatedAt());
+                ps.setObject(10, prompt.getCompletedAt());
+                ps.setString(11, prompt.getErrorMessage());
+                ps.setString(12, keywords);
+                ps.setString(13, categoryKeywords);
+            });
         } catch (Exception e) {
             log.error("Error saving prompt with vector", e);
             throw new RuntimeException("Failed to save prompt: " + e.getMessage(), e);
         }
     }
 
-    private String vectorToString(double[] vector) {
-        if (vector == null) return null;
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) sb.append(",");
-            sb.append(String.format("%.8f", vector[i]));  // 소수점 정밀도 제어
-        }
-        sb.append("]");
-        return sb.toString();
-    }
+    // PENDING -> PROCESSING 선점 (CAS). 처리 중 서버가 죽어 staleBefore 이전부터 PROCESSING 인 건도 다시 선점
+    // updated_at 에 선점 시각을 기록해 이후 결과 기록 시 선점 토큰으로 사용
+    private static final String CLAIM_PROMPT_SQL = """
+            UPDATE prompts SET status = 'PROCESSING', updated_at = ?
+            WHERE prompt_id = ?
+              AND (status = 'PENDING' OR (status = 'PROCESSING' AND updated_at < ?))
+            """;
+
+    // 선점한 워커가 그대로일 때만 결과 기록 (그 사이 다른 워커가 재선점했다면 0건)
+    private static final String COMPLETE_PROMPT_SQL = """
+            UPDATE prompts SET
+                improved_prompt = ?, embedding_vector = ?, keywords = ?::jsonb, category_keywords = ?::jsonb,
+                status = ?, updated_at = ?, completed_at = ?, error_message = NULL
+            WHERE prompt_id = ? AND status = 'PROCESSING' AND updated_at = ?
+            """;
+
+    // 처리 실패 시 선점을 풀어 지연 재시도 때 다시 선점할 수 있게 함
+    private static final String RELEASE_PROMPT_SQL = """
+            UPDATE prompts SET status = 'PENDING', error_message = ?, updated_at = ?
+            WHERE prompt_id = ? AND status = 'PROCESSING' AND updated_at = ?
+            """;
 
-    public List<Prompt> findSimilarPrompts(double[] vector, double threshold, int limit) {
-        String sql = """
-            SELECT * FROM prompts
-            WHERE embedding_vector IS NOT NULL 
-            AND 1 - (embedding_vector <=> cast(? as vector(1536))) > ?
-            ORDER BY 1 - (embedding_vector <=> cast(? as vector(1536))) DESC
-            LIMIT ?
+    // 재시도를 모두 소진한 경우 (선점되지 않은 PENDING 상태만)
+    private static final String FAIL_PROMPT_SQL = """
+            UPDATE prompts SET status = 'FAILED', error_message = ?, updated_at = ?
+            WHERE prompt_id = ? AND status = 'PENDING'
             """;
 
-        String vectorStr = vectorToString(vector);
-        return jdbcTemplate.query(sql, promptRowMapper,
-                vectorStr, threshold, vectorStr, limit);
+    public boolean claimForProcessing(String promptId, LocalDateTime claimedAt, LocalDateTime staleBefore) {
+        return jdbcTemplate.update(CLAIM_PROMPT_SQL, claimedAt, promptId, staleBefore) > 0;
+    }
+
+    public boolean completeProcessing(Prompt prompt, LocalDateTime claimedAt) {
+        PgVector vector = PgVector.of(prompt.getEmbeddingVector());
+        String keywords = convertToJsonString(prompt.getKeywords());
+        String categoryKeywords = convertToJsonString(prompt.getCategoryKeywords());
+
+        int updated = jdbcTemplate.update(COMPLETE_PROMPT_SQL, ps -> {
+            PgVector.register(ps.getConnection());
+            ps.setString(1, prompt.getImprovedPrompt());
+            setVector(ps, 2, vector);
+            ps.setString(3, keywords);
+            ps.setString(4, categoryKeywords);
+            ps.setString(5, prompt.getStatus().name());
+            ps.setObject(6, prompt.getUpdatedAt());
+            ps.setObject(7, prompt.getCompletedAt());
+            ps.setString(8, prompt.getPromptId());
+            ps.setObject(9, claimedAt);
+        });
+        return updated > 0;
+    }
+
+    public boolean releaseProcessing(String promptId, LocalDateTime claimedAt, String errorMessage,
+                                     LocalDateTime releasedAt) {
+        return jdbcTemplate.update(RELEASE_PROMPT_SQL, errorMessage, releasedAt, promptId, claimedAt) > 0;
+    }
+
+    public boolean failPending(String promptId, String errorMessage, LocalDateTime failedAt) {
+        return jdbcTemplate.update(FAIL_PROMPT_SQL, errorMessage, failedAt, promptId) > 0;
+    }
+
+    private void setVector(PreparedStatement ps, int index, PgVector vector) throws SQLException {
+        if (vector == null) {
+            ps.setNull(index, Types.OTHER);
+        } else {
+            ps.setObject(index, vector);
+        }
+    }
+
+    // 인덱스(vector_cosine_ops)를 타도록 ORDER BY embedding_vector <=> ? LIMIT k 로 근접 후보를 먼저 뽑고
+    // 임계값 필터는 바깥 쿼리에서 적용 (WHERE 절에 거리 조건을 두면 순차 탐색으로 떨어짐)
+    // 후보 결과에는 vector 를 싣지 않음 (거리 계산은 DB 에서 끝남)
+    private static final String SIMILAR_PROMPTS_SQL = """
+            SELECT * FROM (
+                SELECT %s, embedding_vector <=> ? AS distance
+                FROM prompts
+                WHERE embedding_vector IS NOT NULL
+                ORDER BY embedding_vector <=> ?
+                LIMIT ?
+            ) nearest
+            WHERE distance < ?
+            ORDER BY distance
+            """.formatted(RESULT_COLUMNS);
+
+    // ef_search/probes 를 트랜잭션 로컬로 설정하므로 트랜잭션 안에서 호출해야 함 (VectorService)
+    public List<PromptResultView> findSimilarPrompts(float[] vector, double threshold, int limit) {
+        vectorIndexManager.applySearchSettings(limit);
+
+        PgVector queryVector = PgVector.of(vector);
+        double maxDistance = 1 - threshold;
+        return jdbcTemplate.query(SIMILAR_PROMPTS_SQL, ps -> {
+            PgVector.register(ps.getConnection());
+            ps.setObject(1, queryVector);
+            ps.setObject(2, queryVector);
+            ps.setInt(3, limit);
+            ps.setDouble(4, maxDistance);
+        }, resultRowMapper);
     }
 
     private String convertToJsonString(Object value) {
@@ -328,9 +432,27 @@ public class CustomVectorRepository {
         }
     }
 
+    // 상태 확인, 메시지 처리 로그처럼 결과 본문이 필요 없는 경우
+    public Optional<PromptStatusView> findStatusByPromptId(String promptId) {
+        List<PromptStatusView> views = jdbcTemplate.query(
+                "SELECT " + STATUS_COLUMNS + " FROM prompts WHERE prompt_id = ?", statusRowMapper, promptId);
+        return views.stream().findFirst();
+    }
+
+    // 결과 조회 API - 임베딩을 제외한 분석 결과
+    public Optional<PromptResultView> findResultByPromptId(String promptId) {
+        List<PromptResultView> views = jdbcTemplate.query(
+                "SELECT " + RESULT_COLUMNS + " FROM prompts WHERE prompt_id = ?", resultRowMapper, promptId);
+        return views.stream().findFirst();
+    }
+
+    // 임베딩까지 필요한 경우에만 사용
     public Optional<Prompt> findByPromptId(String promptId) {
-        String sql = "SELECT * FROM prompts WHERE prompt_id = ?";
-        List<Prompt> prompts = jdbcTemplate.query(sql, promptRowMapper, promptId);
+        String sql = "SELECT " + FULL_COLUMNS + " FROM prompts WHERE prompt_id = ?";
+        List<Prompt> prompts = jdbcTemplate.query(sql, ps -> {
+            PgVector.register(ps.getConnection());
+            ps.setString(1, promptId);
+        }, promptRowMapper);
         return prompts.isEmpty() ? Optional.empty() : Optional.of(prompts.get(0));
     }
 
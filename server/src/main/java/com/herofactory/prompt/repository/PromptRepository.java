@@ -2,10 +2,8 @@ package com.herofactory.prompt.repository;
 
 import com.herofactory.prompt.entity.Prompt;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import jakarta.persistence.LockModeType;
 
 import java.util.Optional;
 import java.util.List;
@@ -14,10 +12,6 @@ import java.util.UUID;
 public interface PromptRepository extends JpaRepository<Prompt, UUID> {
     Optional<Prompt> findByPromptId(String promptId);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT p FROM Prompt p WHERE p.promptId = :promptId")
-    Optional<Prompt> findByPromptIdWithLock(@Param("promptId") String promptId);
-
     @Query(value = """
         SELECT p.*, 
         (p.embedding <-> :queryEmbedding) as distance
@@ -27,7 +21,7 @@ public interface PromptRepository extends JpaRepository<Prompt, UUID> {
         FETCH FIRST :limit ROWS ONLY
         """, nativeQuery = true)
     List<Prompt> findSimilarPrompts(
-            @Param("queryEmbedding") double[] queryEmbedding,
+            @Param("queryEmbedding") float[] queryEmbedding,
             @Param("limit") int limit
     );
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.herofactory.prompt.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// prompts.embedding_vector 인덱스 관리
+// findSimilarPrompts 는 코사인 거리(<=>)로 정렬하므로 인덱스도 반드시 vector_cosine_ops 로 생성해야 플래너가 사용함
+@Slf4j
+@Component
+public class VectorIndexManager {
+    public static final String INDEX_NAME = "prompt_vector_idx";
+    private static final String OPERATOR_CLASS = "vector_cosine_ops";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IndexType indexType;
+    private final int hnswM;
+    private final int hnswEfConstruction;
+    private final int hnswEfSearch;
+    private final int ivfflatProbes;
+    private volatile int resolvedProbes;
+
+    public VectorIndexManager(
+            JdbcTemplate jdbcTemplate,
+            @Value("${prompt.vector-index.type:hnsw}") String indexType,
+            @Value("${prompt.vector-index.hnsw.m:16}") int hnswM,
+            @Value("${prompt.vector-index.hnsw.ef-construction:64}") int hnswEfConstruction,
+            @Value("${prompt.vector-index.hnsw.ef-search:40}") int hnswEfSearch,
+            @Value("${prompt.vector-index.ivfflat.probes:0}") int ivfflatProbes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexType = IndexType.valueOf(indexType.toUpperCase(Locale.ROOT));
+        this.hnswM = hnswM;
+        this.hnswEfConstruction = hnswEfConstruction;
+        this.hnswEfSearch = hnswEfSearch;
+        this.ivfflatProbes = ivfflatProbes;
+    }
+
+    public enum IndexType {
+        HNSW, IVFFLAT
+    }
+
+    public void createVectorIndex() {
+        String existing = findIndexDefinition();
+        if (existing != null) {
+            if (matchesConfiguredIndex(existing)) {
+                log.info("Vector index {} already matches configuration: {}", INDEX_NAME, existing);
+                return;
+            }
+            // 기존 ivfflat/vector_l2_ops 인덱스처럼 연산자 클래스나 방식이 다르면 재생성
+            log.warn("Dropping mismatched vector index {}: {}", INDEX_NAME, existing);
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + INDEX_NAME);
+        }
+
+        String ddl = switch (indexType) {
+            case HNSW -> String.format(
+                    "CREATE INDEX IF NOT EXISTS %s ON prompts USING hnsw (embedding_vector %s) " +
+                            "WITH (m = %d, ef_construction = %d)",
+                    INDEX_NAME, OPERATOR_CLASS, hnswM, hnswEfConstruction);
+            case IVFFLAT -> String.format(
+                    "CREATE INDEX IF NOT EXISTS %s ON prompts USING ivfflat (embedding_vector %s) " +
+                            "WITH (lists = %d)",
+                    INDEX_NAME, OPERATOR_CLASS, ivfflatLists(countVectors()));
+        };
+
+        jdbcTemplate.execute(ddl);
+        resolvedProbes = 0;
+        log.info("Created vector similarity index: {}", ddl);
+    }
+
+    // 현재 트랜잭션에만 적용(set_config(..., true))되므로 반드시 검색 쿼리와 같은 트랜잭션 안에서 호출해야 함
+    public void applySearchSettings(int limit) {
+        switch (indexType) {
+            case HNSW -> jdbcTemplate.queryForObject(
+                    "SELECT set_config('hnsw.ef_search', ?, true)", String.class,
+                    String.valueOf(Math.max(hnswEfSearch, limit)));
+            case IVFFLAT -> jdbcTemplate.queryForObject(
+                    "SELECT set_config('ivfflat.probes', ?, true)", String.class,
+                    String.valueOf(resolveProbes()));
+        }
+    }
+
+    private boolean matchesConfiguredIndex(String definition) {
+        String normalized = definition.toLowerCase(Locale.ROOT);
+        return normalized.contains("using " + indexType.name().toLowerCase(Locale.ROOT))
+                && normalized.contains(OPERATOR_CLASS);
+    }
+
+    private String findIndexDefinition() {
+        return jdbcTemplate.query(
+                "SELECT indexdef FROM pg_indexes WHERE indexname = ?",
+                rs -> rs.next() ? rs.getString(1) : null,
+                INDEX_NAME
+        );
+    }
+
+    private long countVectors() {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM prompts WHERE embedding_vector IS NOT NULL", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    // pgvector 권장값: 100만 건 이하 rows / 1000, 그 이상 sqrt(rows)
+    static int ivfflatLists(long rows) {
+        long lists = rows <= 1_000_000 ? rows / 1000 : (long) Math.sqrt(rows);
+        return (int) Math.max(1, lists);
+    }
+
+    // probes 미설정 시 sqrt(lists) 를 사용하며, 검색마다 카탈로그를 조회하지 않도록 한 번만 계산
+    private int resolveProbes() {
+        if (ivfflatProbes > 0) {
+            return ivfflatProbes;
+        }
+        if (resolvedProbes > 0) {
+            return resolvedProbes;
+        }
+        Integer lists = jdbcTemplate.query(
+                "SELECT reloptions FROM pg_class WHERE relname = ?",
+                rs -> {
+                    if (!rs.next() || rs.getArray(1) == null) return null;
+                    for (Object option : (Object[]) rs.getArray(1).getArray()) {
+                        String value = String.valueOf(option);
+                        if (value.startsWith("lists=")) {
+                            return Integer.parseInt(value.substring("lists=".length()));
+                        }
+                    }
+                    return null;
+                },
+                INDEX_NAME
+        );
+        resolvedProbes = lists == null ? 1 : Math.max(1, (int) Math.sqrt(lists));
+        return resolvedProbes;
+    }
+}
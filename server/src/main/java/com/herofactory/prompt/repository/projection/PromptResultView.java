@@ -0,0 +1,23 @@
+package com.herofactory.prompt.repository.projection;
+
+import com.herofactory.prompt.entity.enums.PromptStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// 분석 결과 조회용 (embedding_vector 제외)
+public record PromptResultView(
+        String promptId,
+        String memberId,
+        String originalPrompt,
+        String improvedPrompt,
+        List<String> keywords,
+        List<Map<String, List<String>>> categoryKeywords,
+        PromptStatus status,
+        String errorMessage,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime completedAt
+) {
+}
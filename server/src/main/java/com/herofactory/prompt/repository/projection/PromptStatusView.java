@@ -0,0 +1,16 @@
+package com.herofactory.prompt.repository.projection;
+
+import com.herofactory.prompt.entity.enums.PromptStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// 상태 확인용 최소 컬럼 (JSONB, embedding_vector 제외)
+public record PromptStatusView(
+        UUID id,
+        String promptId,
+        PromptStatus status,
+        String errorMessage,
+        LocalDateTime updatedAt
+) {
+}
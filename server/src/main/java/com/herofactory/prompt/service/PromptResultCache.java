@@ -0,0 +1,87 @@
+package com.herofactory.prompt.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.herofactory.common.cache.TwoLevelCache;
+import com.herofactory.converter.PgVector;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// 정규화한 originalPrompt 해시 -> 분석 결과 + 임베딩
+// 클라이언트 재시도로 같은 프롬프트가 다시 들어오면 OpenAI 호출(임베딩, chat) 없이 결과를 채움
+@Slf4j
+@Component
+public class PromptResultCache {
+    private final boolean enabled;
+    private final TwoLevelCache<CachedResult> cache;
+
+    public PromptResultCache(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${prompt.result-cache.enabled:true}") boolean enabled,
+            @Value("${prompt.result-cache.ttl:24h}") Duration ttl,
+            @Value("${prompt.result-cache.local-max-size:1000}") long localMaxSize) {
+        this.enabled = enabled;
+        this.cache = new TwoLevelCache<>("prompt-result", CachedResult.class, ttl, localMaxSize,
+                redisTemplate, objectMapper, meterRegistry);
+    }
+
+    // 임베딩은 pgvector 바이너리 포맷(byte[] -> JSON base64)으로 저장해 float 배열 JSON 보다 작게 유지
+    record CachedResult(
+            String improvedPrompt,
+            List<String> keywords,
+            Map<String, List<String>> categoryKeywords,
+            byte[] embedding
+    ) {
+    }
+
+    record Hit(PromptService.ProcessedPromptData data, float[] embedding) {
+    }
+
+    public Optional<Hit> find(String originalPrompt) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return cache.get(TwoLevelCache.contentKey(originalPrompt))
+                .flatMap(this::toHit);
+    }
+
+    public void put(String originalPrompt, PromptService.ProcessedPromptData data, float[] embedding) {
+        // 파싱 실패로 비어 있는 결과는 재시도 때 다시 분석되도록 캐시하지 않음
+        if (!enabled || embedding == null || data.improvedPrompt() == null || data.improvedPrompt().isBlank()) {
+            return;
+        }
+        cache.put(TwoLevelCache.contentKey(originalPrompt), new CachedResult(
+                data.improvedPrompt(),
+                data.keywords(),
+                data.categoryKeywords(),
+                PgVector.of(embedding).toBytes()
+        ));
+    }
+
+    private Optional<Hit> toHit(CachedResult cached) {
+        if (cached.embedding() == null) {
+            return Optional.empty();
+        }
+        try {
+            PgVector vector = new PgVector();
+            vector.setByteValue(cached.embedding(), 0);
+            return Optional.of(new Hit(
+                    new PromptService.ProcessedPromptData(
+                            cached.keywords(), cached.improvedPrompt(), cached.categoryKeywords()),
+                    vector.toArray()
+            ));
+        } catch (Exception e) {
+            log.warn("Ignoring malformed cached prompt result: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
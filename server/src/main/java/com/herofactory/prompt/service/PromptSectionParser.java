@@ -0,0 +1,61 @@
+package com.herofactory.prompt.service;
+
+// ANALYSIS_SYSTEM_PROMPT 응답의 ---SECTION--- 블록을 조각 단위 입력으로 파싱
+// 스트리밍 응답은 줄 중간에서 끊겨 들어오므로 완성된 줄만 처리하고, 다음 섹션 헤더가 오면 직전 섹션을 확정해 listener 로 전달
+class PromptSectionParser {
+
+    interface SectionListener {
+        void onSection(String section, String content);
+    }
+
+    private final SectionListener listener;
+    private final StringBuilder pendingLine = new StringBuilder();
+    private StringBuilder sectionContent = new StringBuilder();
+    private String currentSection;
+
+    PromptSectionParser(SectionListener listener) {
+        this.listener = listener;
+    }
+
+    void feed(String chunk) {
+        int start = 0;
+        int newline;
+        while ((newline = chunk.indexOf('\n', start)) >= 0) {
+            pendingLine.append(chunk, start, newline);
+            processLine(pendingLine.toString());
+            pendingLine.setLength(0);
+            start = newline + 1;
+        }
+        pendingLine.append(chunk, start, chunk.length());
+    }
+
+    // 남은 줄과 마지막 섹션 처리
+    void finish() {
+        if (pendingLine.length() > 0) {
+            processLine(pendingLine.toString());
+            pendingLine.setLength(0);
+        }
+        if (currentSection != null) {
+            listener.onSection(currentSection, sectionContent.toString().trim());
+            currentSection = null;
+        }
+    }
+
+    private void processLine(String rawLine) {
+        String line = rawLine.trim();
+
+        // 섹션 헤더 확인
+        if (line.startsWith("---") && line.endsWith("---")) {
+            // 이전 섹션 처리
+            if (currentSection != null) {
+                listener.onSection(currentSection, sectionContent.toString().trim());
+            }
+
+            // 새 섹션 시작
+            currentSection = line.replaceAll("-", "").trim();
+            sectionContent = new StringBuilder();
+        } else if (!line.isEmpty() && currentSection != null) {
+            sectionContent.append(line).append("\n");
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.herofactory.prompt.service;
 
 import com.herofactory.common.exception.PromptException;
-import com.herofactory.prompt.entity.PromptLog;
+import com.herofactory.infrastructure.audit.AuditEntry;
+import com.herofactory.infrastructure.audit.AuditLogWriter;
 import com.herofactory.prompt.entity.enums.PromptLogType;
 import com.herofactory.prompt.infrastructure.messaging.producer.PromptProducer;
 import com.herofactory.prompt.entity.Prompt;
@@ -9,35 +10,54 @@ import com.herofactory.prompt.entity.enums.PromptStatus;
 import com.herofactory.prompt.dto.PromptMessage;
 import com.herofactory.prompt.dto.request.PromptRequest;
 import com.herofactory.prompt.dto.response.PromptResponse;
+import com.herofactory.prompt.infrastructure.openai.ChatCompletion;
 import com.herofactory.prompt.infrastructure.openai.OpenAiApi;
 import com.herofactory.prompt.repository.CustomVectorRepository;
-import com.herofactory.prompt.repository.PromptLogRepository;
 import com.herofactory.prompt.repository.PromptRepository;
+import com.herofactory.prompt.repository.projection.PromptResultView;
+import com.herofactory.prompt.repository.projection.PromptStatusView;
 import lombok.RequiredArgsConstructor;
+import com.herofactory.prompt.service.event.PromptStatusChangedEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PromptService {
+    private static final int SHORT_TRANSACTION_TIMEOUT_SECONDS = 5;
+
     private final PromptRepository promptRepository;
-    private final PromptLogRepository promptLogRepository;
+    private final AuditLogWriter auditLogWriter;
     private final CustomVectorRepository customVectorRepository;
     private final PromptProducer promptProducer;
     private final OpenAiApi openAiApi;
+    private final SemanticPromptCache semanticPromptCache;
+    private final PromptResultCache promptResultCache;
+    private final PromptStreamHub promptStreamHub;
+    private final PromptStatusNotifier promptStatusNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${prompt.streaming.enabled:true}")
+    private boolean streamingEnabled;
+    // 선점 후 이 시간이 지나도 PROCESSING 이면 처리하던 서버가 죽은 것으로 보고 재선점 허용
+    @Value("${prompt.processing.claim-timeout:5m}")
+    private Duration claimTimeout;
     private final PlatformTransactionManager transactionManager;
 
     @Transactional
@@ -61,27 +81,17 @@ public class PromptService {
             // 2. 프롬프트 저장 (JPA 사용)
             prompt = promptRepository.saveAndFlush(prompt);
 
-            // 3. 로그 엔티티 생성 및 연관관계 설정
-            PromptLog log = PromptLog.builder()
-                    .prompt(prompt)
-                    .logType(PromptLogType.CREATED.name())
-                    .content("Prompt created with original text: " + request.getOriginalPrompt())
-                    .createdAt(LocalDateTime.now())
-                    .build();
-
-            // 4. 양방향 관계 설정
-            prompt.getPromptLogs().add(log);
+            // 3. 생성 로그 - 커밋 후 AuditLogWriter 가 모아서 기록
+            auditLogWriter.append(AuditEntry.promptLog(promptId, PromptLogType.CREATED.name(),
+                    "Prompt created with original text: " + request.getOriginalPrompt()));
 
-            // 5. 로그 저장
-            promptLogRepository.save(log);
-
-            // 6. vector 정보 저장 (필요한 경우)
+            // 4. vector 정보 저장 (필요한 경우)
             if (prompt.getEmbeddingVector() != null) {
                 customVectorRepository.savePromptWithVector(prompt);
                 customVectorRepository.flush();
             }
 
-            // 7. 메시지 생성 및 전송
+            // 5. 메시지 생성 및 전송
             PromptMessage message = createPromptMessage(prompt);
             promptProducer.sendPromptMessage(message);
 
@@ -93,69 +103,133 @@ public class PromptService {
         }
     }
 
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    // 1) 짧은 트랜잭션으로 PENDING -> PROCESSING 선점 후 바로 커밋
+    // 2) OpenAI 호출은 트랜잭션 밖에서 수행 (row lock, DB 커넥션을 잡지 않음)
+    // 3) 선점이 유지된 경우에만 짧은 트랜잭션으로 결과 기록
     public void processPrompt(PromptMessage message) {
-        DefaultTransactionDefinition def = new DefaultTransactionDefinition();
-        def.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
-        TransactionStatus status = transactionManager.getTransaction(def);
+        String promptId = message.getPromptId();
+        // timestamp 컬럼 정밀도(마이크로초)에 맞춰야 결과 기록 시 선점 토큰 비교가 일치함
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        Prompt prompt = inShortTransaction(tx -> claimPrompt(promptId, claimedAt));
+        if (prompt == null) {
+            return;
+        }
+        publishStatusChanged(prompt);
 
         try {
-            Prompt prompt = promptRepository.findByPromptIdWithLock(message.getPromptId())
-                    .orElseThrow(() -> new PromptException("프롬프트를 찾을 수 없습니다."));
+            try {
+                analyzePrompt(prompt);
+            } catch (Exception e) {
+                throw new PromptException("API 처리 중 오류 발생: " + e.getMessage());
+            }
 
-            if (!prompt.getStatus().canProcess()) {
+            prompt.setStatus(PromptStatus.COMPLETED);
+            Boolean written = inShortTransaction(tx -> customVectorRepository.completeProcessing(prompt, claimedAt));
+            if (!Boolean.TRUE.equals(written)) {
+                log.warn("Prompt {} was reclaimed by another worker, discarding results", promptId);
                 return;
             }
+            publishStatusChanged(prompt);
 
-            prompt.setStatus(PromptStatus.PROCESSING);
-            customVectorRepository.savePromptWithVector(prompt);
-
-            CompletableFuture<String> analysisFuture = openAiApi.chatAsync(
-                    OpenAiApi.ANALYSIS_SYSTEM_PROMPT,
-                    prompt.getOriginalPrompt()
-            );
-
-            CompletableFuture<double[]> embeddingFuture = openAiApi.embeddingsAsync(
-                    prompt.getOriginalPrompt()
-            );
+        } catch (Exception e) {
+            releaseForRetry(prompt, claimedAt, e);
+            throw new PromptException("프롬프트 처리 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
 
-            CompletableFuture<Void> allOf = CompletableFuture.allOf(
-                    analysisFuture, embeddingFuture
-            );
+    // 선점에 실패하면 (이미 처리 중/완료/실패) null
+    private Prompt claimPrompt(String promptId, LocalDateTime claimedAt) {
+        if (!customVectorRepository.claimForProcessing(promptId, claimedAt, claimedAt.minus(claimTimeout))) {
+            PromptStatusView current = customVectorRepository.findStatusByPromptId(promptId)
+                    .orElseThrow(() -> new PromptException("프롬프트를 찾을 수 없습니다."));
+            log.info("Prompt {} is not claimable - status: {}", promptId, current.status());
+            return null;
+        }
+        // PENDING 상태에는 임베딩이 없으므로 전체 컬럼을 읽어도 vector 전송 비용이 없음
+        return customVectorRepository.findByPromptId(promptId)
+                .orElseThrow(() -> new PromptException("프롬프트를 찾을 수 없습니다."));
+    }
 
-            try {
-                allOf.get(45, TimeUnit.SECONDS);
+    private void analyzePrompt(Prompt prompt) throws Exception {
+        // 동일 프롬프트(공백/대소문자 정규화) 재요청이면 OpenAI 호출 없이 캐시된 결과 사용
+        Optional<PromptResultCache.Hit> exact = promptResultCache.find(prompt.getOriginalPrompt());
+        if (exact.isPresent()) {
+            log.info("Prompt result cache hit - prompt: {}", prompt.getPromptId());
+            updatePromptWithResults(prompt, exact.get().data(), exact.get().embedding());
+            return;
+        }
 
-                String analysis = analysisFuture.get();
-                double[] embedding = embeddingFuture.get();
+        // 임베딩을 먼저 구해 의미적으로 같은 완료 프롬프트가 있으면 chat 호출을 생략
+        float[] embedding = openAiApi.embeddingsAsync(prompt.getOriginalPrompt())
+                .get(45, TimeUnit.SECONDS);
+
+        ProcessedPromptData processedData;
+        Optional<PromptResultView> reusable = semanticPromptCache.findReusable(prompt.getPromptId(), embedding);
+        if (reusable.isPresent()) {
+            processedData = toProcessedData(reusable.get());
+        } else if (streamingEnabled) {
+            processedData = streamAndParse(prompt);
+        } else {
+            long startedAt = System.nanoTime();
+            ChatCompletion completion = openAiApi.chatAsync(
+                    OpenAiApi.ANALYSIS_SYSTEM_PROMPT,
+                    prompt.getOriginalPrompt()
+            ).get(90, TimeUnit.SECONDS);
+            semanticPromptCache.recordChatCost(
+                    Duration.ofNanos(System.nanoTime() - startedAt), completion.totalTokens());
+            processedData = parseProcessedData(completion.content());
+        }
 
-                ProcessedPromptData processedData = parseProcessedData(analysis);
-                updatePromptWithResults(prompt, processedData, embedding);
+        updatePromptWithResults(prompt, processedData, embedding);
+        promptResultCache.put(prompt.getOriginalPrompt(), processedData, embedding);
+    }
 
-                prompt.setStatus(PromptStatus.COMPLETED);
-                customVectorRepository.savePromptWithVector(prompt);
+    private <T> T inShortTransaction(TransactionCallback<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setTimeout(SHORT_TRANSACTION_TIMEOUT_SECONDS);
+        return template.execute(action);
+    }
 
-                transactionManager.commit(status);
+    // 구독을 먼저 등록한 뒤 상태를 읽어 그 사이에 끝난 처리 결과를 놓치지 않도록 함
+    // 없는 promptId 등으로 상태 조회가 실패하면 등록한 연결을 바로 정리 (timeout 까지 hub 에 남지 않도록)
+    public SseEmitter streamPrompt(String promptId) {
+        SseEmitter emitter = promptStreamHub.subscribe(promptId);
+        PromptResponse current;
+        try {
+            current = getPromptStatus(promptId);
+        } catch (RuntimeException e) {
+            promptStreamHub.unsubscribe(promptId, emitter);
+            throw e;
+        }
+        if (current.getStatus().isTerminal()) {
+            String event = current.getStatus() == PromptStatus.COMPLETED
+                    ? PromptStreamHub.EVENT_COMPLETED : PromptStreamHub.EVENT_FAILED;
+            promptStreamHub.completeOne(promptId, emitter, event, current);
+        } else {
+            promptStreamHub.send(promptId, emitter, PromptStreamHub.EVENT_STATUS, current);
+        }
+        return emitter;
+    }
 
-            } catch (Exception e) {
-                throw new PromptException("API 처리 중 오류 발생: " + e.getMessage());
-            }
+    // long-poll: 종료 알림 구독. 구독 후 getPromptStatus 를 한 번 읽어 이미 종료된 경우를 처리해야 함
+    public Runnable onPromptTerminal(String promptId, Consumer<PromptResponse> listener) {
+        return promptStreamHub.onTerminal(promptId, listener);
+    }
 
-        } catch (Exception e) {
-            transactionManager.rollback(status);
-            handlePromptProcessingError(message.getPromptId(), e);
-            throw new PromptException("프롬프트 처리 중 오류가 발생했습니다: " + e.getMessage());
-        }
+    private void publishStatusChanged(Prompt prompt) {
+        eventPublisher.publishEvent(new PromptStatusChangedEvent(
+                prompt.getPromptId(), prompt.getStatus(), createPromptResponse(prompt)));
     }
 
     @Transactional(readOnly = true)
     public PromptResponse getPromptStatus(String promptId) {
-        Prompt prompt = customVectorRepository.findByPromptId(promptId)
+        PromptResultView result = customVectorRepository.findResultByPromptId(promptId)
                 .orElseThrow(() -> new PromptException("프롬프트 정보를 찾을 수 없습니다."));
-        return createPromptResponse(prompt);
+        return createPromptResponse(result);
     }
 
-    private record ProcessedPromptData(
+    record ProcessedPromptData(
             List<String> keywords,
             String improvedPrompt,
             Map<String, List<String>> categoryKeywords
@@ -164,43 +238,12 @@ public class PromptService {
 
     private ProcessedPromptData parseProcessedData(String response) {
         try {
-            Map<String, Object> parsedData = new HashMap<>();
-            String currentSection = null;
-            StringBuilder sectionContent = new StringBuilder();
-
-            // 기본값 초기화
-            parsedData.put("KEYWORDS", new ArrayList<String>());
-            parsedData.put("IMPROVED", "");
-            parsedData.put("CATEGORIES", new HashMap<String, List<String>>());
-
-            for (String line : response.split("\n")) {
-                line = line.trim();
-
-                // 섹션 헤더 확인
-                if (line.startsWith("---") && line.endsWith("---")) {
-                    // 이전 섹션 처리
-                    if (currentSection != null) {
-                        processSection(currentSection, sectionContent.toString().trim(), parsedData);
-                    }
-
-                    // 새 섹션 시작
-                    currentSection = line.replaceAll("-", "").trim();
-                    sectionContent = new StringBuilder();
-                } else if (!line.isEmpty() && currentSection != null) {
-                    sectionContent.append(line).append("\n");
-                }
-            }
-
-            // 마지막 섹션 처리
-            if (currentSection != null) {
-                processSection(currentSection, sectionContent.toString().trim(), parsedData);
-            }
-
-            return new ProcessedPromptData(
-                    (List<String>) parsedData.get("KEYWORDS"),
-                    (String) parsedData.get("IMPROVED"),
-                    (Map<String, List<String>>) parsedData.get("CATEGORIES")
-            );
+            Map<String, Object> parsedData = newParsedData();
+            PromptSectionParser parser = new PromptSectionParser(
+                    (section, content) -> processSection(section, content, parsedData));
+            parser.feed(response);
+            parser.finish();
+            return toProcessedData(parsedData);
         } catch (Exception e) {
             log.error("Error parsing response: {}", e.getMessage());
             return new ProcessedPromptData(
@@ -211,7 +254,50 @@ public class PromptService {
         }
     }
 
-    private void processSection(String section, String content, Map<String, Object> parsedData) {
+    // 스트리밍 응답을 받으면서 섹션이 완성될 때마다 구독자에게 부분 결과 전송
+    private ProcessedPromptData streamAndParse(Prompt prompt) throws Exception {
+        String promptId = prompt.getPromptId();
+        Map<String, Object> parsedData = newParsedData();
+        PromptSectionParser parser = new PromptSectionParser((section, content) -> {
+            String key = processSection(section, content, parsedData);
+            if (key != null) {
+                promptStatusNotifier.publishPartial(promptId, key, parsedData.get(key));
+            }
+        });
+
+        long startedAt = System.nanoTime();
+        ChatCompletion completion = openAiApi.chatStreamAsync(
+                OpenAiApi.ANALYSIS_SYSTEM_PROMPT,
+                prompt.getOriginalPrompt(),
+                parser::feed
+        ).get(90, TimeUnit.SECONDS);
+        semanticPromptCache.recordChatCost(
+                Duration.ofNanos(System.nanoTime() - startedAt), completion.totalTokens());
+
+        parser.finish();
+        return toProcessedData(parsedData);
+    }
+
+    private Map<String, Object> newParsedData() {
+        Map<String, Object> parsedData = new HashMap<>();
+        // 기본값 초기화
+        parsedData.put("KEYWORDS", new ArrayList<String>());
+        parsedData.put("IMPROVED", "");
+        parsedData.put("CATEGORIES", new HashMap<String, List<String>>());
+        return parsedData;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProcessedPromptData toProcessedData(Map<String, Object> parsedData) {
+        return new ProcessedPromptData(
+                (List<String>) parsedData.get("KEYWORDS"),
+                (String) parsedData.get("IMPROVED"),
+                (Map<String, List<String>>) parsedData.get("CATEGORIES")
+        );
+    }
+
+    // 처리한 섹션의 parsedData 키를 반환, 사용하지 않는 섹션이면 null
+    private String processSection(String section, String content, Map<String, Object> parsedData) {
         switch (section.toUpperCase().trim()) {
             case "KEYWORDS", "ENHANCED KEYWORDS" -> {
                 List<String> keywords = Arrays.stream(content.split("\n"))
@@ -220,6 +306,7 @@ public class PromptService {
                         .filter(k -> !k.isEmpty() && !k.startsWith("[") && !k.endsWith("]"))
                         .collect(Collectors.toList());
                 parsedData.put("KEYWORDS", keywords);
+                return "KEYWORDS";
             }
             case "IMPROVED", "IMPROVED PROMPT" -> {
                 String improvedPrompt = Arrays.stream(content.split("\n"))
@@ -228,6 +315,7 @@ public class PromptService {
                         .map(String::trim)
                         .orElse("");
                 parsedData.put("IMPROVED", improvedPrompt);
+                return "IMPROVED";
             }
             case "CATEGORIES", "ENHANCED CATEGORIES" -> {
                 Map<String, List<String>> categories = new HashMap<>();
@@ -245,16 +333,21 @@ public class PromptService {
                             categories.put(category, keywords);
                         });
                 parsedData.put("CATEGORIES", categories);
+                return "CATEGORIES";
             }
             case "ANALYSIS", "REFERENCE EXAMPLES", "NEGATIVE PROMPTS" -> {
                 // 이러한 섹션들은 현재 사용하지 않으므로 무시
                 log.debug("Skipping optional section: {}", section);
+                return null;
+            }
+            default -> {
+                log.debug("Unknown section: {}", section);
+                return null;
             }
-            default -> log.debug("Unknown section: {}", section);
         }
     }
 
-    private void updatePromptWithResults(Prompt prompt, ProcessedPromptData data, double[] embedding) {
+    private void updatePromptWithResults(Prompt prompt, ProcessedPromptData data, float[] embedding) {
         prompt.setImprovedPrompt(data.improvedPrompt());
         prompt.setKeywords(data.keywords());
         prompt.setCategoryKeywords(new ArrayList<>(data.categoryKeywords().entrySet().stream()
@@ -265,6 +358,19 @@ public class PromptService {
         prompt.setUpdatedAt(LocalDateTime.now());
     }
 
+    private ProcessedPromptData toProcessedData(PromptResultView completed) {
+        Map<String, List<String>> categories = new LinkedHashMap<>();
+        if (completed.categoryKeywords() != null) {
+            completed.categoryKeywords().forEach(categories::putAll);
+        }
+        return new ProcessedPromptData(
+                completed.keywords() == null ? new ArrayList<>() : new ArrayList<>(completed.keywords()),
+                completed.improvedPrompt(),
+                categories
+        );
+    }
+
+    // 스케치는 처리 단계에서 쓰지 않으므로 메시지에 싣지 않음 (브로커/outbox 본문 크기 유지)
     private PromptMessage createPromptMessage(Prompt prompt) {
         return PromptMessage.builder()
                 .promptId(prompt.getPromptId())
@@ -288,74 +394,63 @@ public class PromptService {
                 .build();
     }
 
-    private void handlePromptProcessingError(String promptId, Exception e) {
+    private PromptResponse createPromptResponse(PromptResultView result) {
+        return PromptResponse.builder()
+                .promptId(result.promptId())
+                .originalPrompt(result.originalPrompt())
+                .improvedPrompt(result.improvedPrompt())
+                .recommendedKeywords(result.keywords())
+                .categoryKeywords(result.categoryKeywords())
+                .status(result.status())
+                .errorMessage(result.errorMessage())
+                .createdAt(result.createdAt())
+                .completedAt(result.completedAt())
+                .build();
+    }
+
+    // 실패한 처리의 선점을 PENDING 으로 되돌림. 최종 실패(FAILED) 처리는 재시도를 소진한 소비자가 failPrompt 로 수행
+    private void releaseForRetry(Prompt prompt, LocalDateTime claimedAt, Exception e) {
         try {
-            Prompt prompt = promptRepository.findByPromptId(promptId)
-                    .orElseThrow(() -> new PromptException("프롬프트 정보를 찾을 수 없습니다."));
+            LocalDateTime now = LocalDateTime.now();
+            Boolean released = inShortTransaction(tx -> customVectorRepository.releaseProcessing(
+                    prompt.getPromptId(), claimedAt, e.getMessage(), now));
+            if (!Boolean.TRUE.equals(released)) {
+                log.warn("Prompt {} was reclaimed by another worker, skipping release", prompt.getPromptId());
+                return;
+            }
 
-            prompt.setStatus(PromptStatus.FAILED);
+            prompt.setStatus(PromptStatus.PENDING);
             prompt.setErrorMessage(e.getMessage());
-            prompt.setUpdatedAt(LocalDateTime.now());
-            promptRepository.save(prompt);
+            prompt.setUpdatedAt(now);
+            publishStatusChanged(prompt);
 
         } catch (Exception ex) {
             log.error("프롬프트 에러 처리 중 추가 오류 발생", ex);
         }
     }
 
-    @Transactional
+    public void failPrompt(String promptId, String errorMessage) {
+        Boolean failed = inShortTransaction(tx ->
+                customVectorRepository.failPending(promptId, errorMessage, LocalDateTime.now()));
+        if (!Boolean.TRUE.equals(failed)) {
+            return;
+        }
+        customVectorRepository.findResultByPromptId(promptId).ifPresent(result ->
+                eventPublisher.publishEvent(new PromptStatusChangedEvent(
+                        promptId, result.status(), createPromptResponse(result))));
+    }
+
     public void logPromptEvent(String promptId, PromptLogType logType, String content) {
         try {
-            // 먼저 프롬프트를 조회하고 영속성 컨텍스트에 로드
-            Prompt prompt = customVectorRepository.findByPromptId(promptId)
-                    .orElseThrow(() -> new PromptException("프롬프트를 찾을 수 없습니다: " + promptId));
-
-            // 로그 엔티티 생성
-            PromptLog log = PromptLog.builder()
-                    .prompt(prompt)
-                    .logType(logType.name())
-                    .content(content)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-
-            // 로그 저장
-            promptLogRepository.save(log);
-
-            // 즉시 플러시하여 DB에 반영
-            promptLogRepository.flush();
+            // prompt_id 만으로 기록하므로 프롬프트를 조회하지 않음
+            auditLogWriter.append(AuditEntry.promptLog(promptId, logType.name(), content));
         } catch (Exception e) {
             log.error("Failed to save prompt log: promptId={}, logType={}", promptId, logType, e);
             // 로그 저장 실패는 예외를 던지지 않고 로깅만 수행
         }
     }
 
-    @Transactional
     protected void savePromptLog(Prompt prompt, PromptLogType logType, String content) {
-        try {
-            // 1. 영속성 컨텍스트에서 프롬프트 조회
-            Prompt managedPrompt = promptRepository.findById(prompt.getId())
-                    .orElseThrow(() -> new PromptException("프롬프트를 찾을 수 없습니다."));
-
-            // 2. 로그 생성
-            PromptLog log = PromptLog.builder()
-                    .prompt(managedPrompt)
-                    .logType(logType.name())
-                    .content(content)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-
-            // 3. 양방향 관계 설정
-            managedPrompt.getPromptLogs().add(log);
-
-            // 4. 저장
-            promptLogRepository.save(log);
-
-            // 5. 즉시 반영
-            promptLogRepository.flush();
-        } catch (Exception e) {
-            log.error("Failed to save prompt log: promptId={}, logType={}",
-                    prompt.getPromptId(), logType, e);
-            // 로그 저장 실패는 예외를 던지지 않고 로깅만 수행
-        }
+        logPromptEvent(prompt.getPromptId(), logType, content);
     }
 }
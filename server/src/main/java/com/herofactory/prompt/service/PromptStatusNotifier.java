@@ -0,0 +1,90 @@
+package com.herofactory.prompt.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.herofactory.prompt.dto.response.PromptResponse;
+import com.herofactory.prompt.entity.enums.PromptStatus;
+import com.herofactory.prompt.service.event.PromptStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// 프롬프트 상태 전이/부분 결과를 Redis pub/sub 으로 모든 인스턴스에 전달하고, 수신한 인스턴스가 자신의 구독자에게 push
+// 처리(RabbitMQ consumer)와 클라이언트 연결이 서로 다른 인스턴스에 있어도 전달되며, 구독자는 DB 를 다시 조회하지 않음
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PromptStatusNotifier implements MessageListener {
+    static final String CHANNEL = "prompt:stream";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final PromptStreamHub promptStreamHub;
+
+    record Envelope(String promptId, String event, JsonNode data) {
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @EventListener
+    public void onStatusChanged(PromptStatusChangedEvent event) {
+        broadcast(event.promptId(), eventName(event.status()), event.response());
+    }
+
+    public void publishPartial(String promptId, String section, Object value) {
+        broadcast(promptId, PromptStreamHub.EVENT_PARTIAL, Map.of("section", section, "value", value));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), Envelope.class);
+            dispatch(envelope);
+        } catch (Exception e) {
+            log.warn("Failed to handle prompt stream message: {}", e.getMessage());
+        }
+    }
+
+    private void broadcast(String promptId, String event, Object data) {
+        Envelope envelope = new Envelope(promptId, event, objectMapper.valueToTree(data));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            // Redis 장애 시 최소한 같은 인스턴스의 구독자에게는 전달
+            log.warn("Failed to publish prompt stream event {} for {}: {}", event, promptId, e.getMessage());
+            dispatch(envelope);
+        }
+    }
+
+    private void dispatch(Envelope envelope) {
+        String promptId = envelope.promptId();
+        switch (envelope.event()) {
+            case PromptStreamHub.EVENT_COMPLETED, PromptStreamHub.EVENT_FAILED -> promptStreamHub.complete(
+                    promptId, envelope.event(), objectMapper.convertValue(envelope.data(), PromptResponse.class));
+            default -> promptStreamHub.publish(promptId, envelope.event(), envelope.data());
+        }
+    }
+
+    private static String eventName(PromptStatus status) {
+        return switch (status) {
+            case COMPLETED -> PromptStreamHub.EVENT_COMPLETED;
+            case FAILED -> PromptStreamHub.EVENT_FAILED;
+            default -> PromptStreamHub.EVENT_STATUS;
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.herofactory.prompt.service;
+
+import com.herofactory.prompt.dto.response.PromptResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// 프롬프트별 push 구독자(SSE, long-poll) 관리
+// 처리 중 섹션이 완성될 때마다 partial 이벤트를, 종료 시 completed/failed 이벤트를 보내고 연결을 닫음
+// 이벤트는 PromptStatusNotifier 가 Redis pub/sub 으로 모든 인스턴스에 전달한 뒤 이 hub 로 넘김
+@Slf4j
+@Component
+public class PromptStreamHub {
+    public static final String EVENT_STATUS = "status";
+    public static final String EVENT_PARTIAL = "partial";
+    public static final String EVENT_COMPLETED = "completed";
+    public static final String EVENT_FAILED = "failed";
+
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<PromptResponse>>> terminalListeners = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    public PromptStreamHub(@Value("${prompt.stream.timeout-ms:120000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe(String promptId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitters.computeIfAbsent(promptId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        Runnable remove = () -> remove(promptId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    // 응답으로 넘기기 전에 요청이 실패한 연결 정리. MVC 에 넘기지 않은 emitter 라 콜백이 불리지 않으므로 직접 제거
+    public void unsubscribe(String promptId, SseEmitter emitter) {
+        remove(promptId, emitter);
+    }
+
+    // long-poll 등 종료 결과만 필요한 구독자. 반환된 Runnable 로 구독 해제
+    public Runnable onTerminal(String promptId, Consumer<PromptResponse> listener) {
+        terminalListeners.computeIfAbsent(promptId, id -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> terminalListeners.computeIfPresent(promptId, (id, list) -> {
+            list.remove(listener);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    public boolean hasSubscribers(String promptId) {
+        List<SseEmitter> subscribers = emitters.get(promptId);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    public void publish(String promptId, String eventName, Object data) {
+        List<SseEmitter> subscribers = emitters.get(promptId);
+        if (subscribers == null) {
+            return;
+        }
+        for (SseEmitter emitter : subscribers) {
+            send(promptId, emitter, eventName, data);
+        }
+    }
+
+    // 종료 이벤트를 보내고 해당 프롬프트의 모든 연결을 닫음
+    public void complete(String promptId, String eventName, PromptResponse response) {
+        List<Consumer<PromptResponse>> listeners = terminalListeners.remove(promptId);
+        if (listeners != null) {
+            listeners.forEach(listener -> listener.accept(response));
+        }
+
+        List<SseEmitter> subscribers = emitters.remove(promptId);
+        if (subscribers == null) {
+            return;
+        }
+        for (SseEmitter emitter : subscribers) {
+            if (send(promptId, emitter, eventName, response)) {
+                emitter.complete();
+            }
+        }
+    }
+
+    // 구독 직후 이미 종료된 프롬프트인 경우 등 단일 연결에만 보내고 닫을 때 사용
+    public void completeOne(String promptId, SseEmitter emitter, String eventName, Object data) {
+        remove(promptId, emitter);
+        if (send(promptId, emitter, eventName, data)) {
+            emitter.complete();
+        }
+    }
+
+    boolean send(String promptId, SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 연결을 끊은 경우
+            log.debug("Dropping SSE subscriber for prompt {}: {}", promptId, e.getMessage());
+            remove(promptId, emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void remove(String promptId, SseEmitter emitter) {
+        emitters.computeIfPresent(promptId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
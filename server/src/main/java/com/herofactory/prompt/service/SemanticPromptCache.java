@@ -0,0 +1,112 @@
+package com.herofactory.prompt.service;
+
+import com.herofactory.prompt.entity.enums.PromptStatus;
+import com.herofactory.prompt.repository.projection.PromptResultView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+// 의미적으로 거의 같은 프롬프트가 이미 COMPLETED 상태라면 chat completion 을 다시 호출하지 않고 결과를 재사용
+@Slf4j
+@Component
+public class SemanticPromptCache {
+    // 최근 chat 호출 비용의 지수 이동 평균 가중치
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final VectorService vectorService;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int candidates;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer savedLatency;
+    private final Counter savedTokens;
+
+    private volatile double averageChatNanos;
+    private volatile double averageChatTokens;
+
+    public SemanticPromptCache(
+            VectorService vectorService,
+            MeterRegistry meterRegistry,
+            @Value("${prompt.semantic-cache.enabled:true}") boolean enabled,
+            @Value("${prompt.semantic-cache.similarity-threshold:0.95}") double similarityThreshold,
+            @Value("${prompt.semantic-cache.candidates:5}") int candidates) {
+        this.vectorService = vectorService;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.candidates = candidates;
+
+        this.hits = Counter.builder("prompt.semantic_cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("prompt.semantic_cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("prompt.semantic_cache.hit_ratio", this, SemanticPromptCache::hitRatio)
+                .register(meterRegistry);
+        this.savedLatency = Timer.builder("prompt.semantic_cache.saved_latency")
+                .description("캐시 적중으로 생략된 chat completion 의 추정 지연시간")
+                .register(meterRegistry);
+        this.savedTokens = Counter.builder("prompt.semantic_cache.saved_tokens")
+                .description("캐시 적중으로 생략된 chat completion 의 추정 토큰 수")
+                .register(meterRegistry);
+    }
+
+    public Optional<PromptResultView> findReusable(String promptId, float[] embedding) {
+        if (!enabled || embedding == null) {
+            return Optional.empty();
+        }
+
+        try {
+            List<PromptResultView> similar = vectorService.findSimilarPrompts(embedding, similarityThreshold, candidates);
+            Optional<PromptResultView> reusable = similar.stream()
+                    .filter(candidate -> candidate.status() == PromptStatus.COMPLETED)
+                    .filter(candidate -> !candidate.promptId().equals(promptId))
+                    .filter(candidate -> candidate.improvedPrompt() != null && !candidate.improvedPrompt().isBlank())
+                    .findFirst();
+
+            if (reusable.isPresent()) {
+                recordHit();
+                log.info("Semantic cache hit - prompt: {}, reused: {}", promptId, reusable.get().promptId());
+            } else {
+                misses.increment();
+            }
+            return reusable;
+        } catch (Exception e) {
+            // 캐시 조회 실패는 처리 흐름을 막지 않고 chat 호출로 진행
+            log.warn("Semantic cache lookup failed for prompt {}: {}", promptId, e.getMessage());
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    // 캐시 미스로 실제 chat 을 호출한 비용을 기록해 적중 시 절감량 추정에 사용
+    public synchronized void recordChatCost(Duration latency, int totalTokens) {
+        averageChatNanos = ewma(averageChatNanos, latency.toNanos());
+        averageChatTokens = ewma(averageChatTokens, totalTokens);
+    }
+
+    private void recordHit() {
+        hits.increment();
+        savedLatency.record(Duration.ofNanos((long) averageChatNanos));
+        savedTokens.increment(averageChatTokens);
+    }
+
+    private static double ewma(double current, double sample) {
+        return current == 0 ? sample : current + EWMA_ALPHA * (sample - current);
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
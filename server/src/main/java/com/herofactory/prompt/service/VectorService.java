@@ -2,6 +2,7 @@ package com.herofactory.prompt.service;
 
 import com.herofactory.prompt.entity.Prompt;
 import com.herofactory.prompt.repository.CustomVectorRepository;
+import com.herofactory.prompt.repository.projection.PromptResultView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,7 +20,7 @@ public class VectorService {
     }
 
     @Transactional(readOnly = true)
-    public List<Prompt> findSimilarPrompts(double[] vector, double threshold, int limit) {
+    public List<PromptResultView> findSimilarPrompts(float[] vector, double threshold, int limit) {
         return vectorRepository.findSimilarPrompts(vector, threshold, limit);
     }
 }
\ No newline at end of file
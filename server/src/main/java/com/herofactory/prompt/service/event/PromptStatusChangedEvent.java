@@ -0,0 +1,12 @@
+package com.herofactory.prompt.service.event;
+
+import com.herofactory.prompt.dto.response.PromptResponse;
+import com.herofactory.prompt.entity.enums.PromptStatus;
+
+// 프롬프트 상태 전이(PROCESSING, COMPLETED, FAILED) 시 발행. response 는 전이 시점의 스냅샷
+public record PromptStatusChangedEvent(
+        String promptId,
+        PromptStatus status,
+        PromptResponse response
+) {
+}
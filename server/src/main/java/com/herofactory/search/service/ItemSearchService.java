@@ -2,25 +2,55 @@ package com.herofactory.search.service;
 
 import com.herofactory.inspecteditem.dto.InspectedItemDto;
 import com.herofactory.search.document.ItemDocument;
-import com.herofactory.search.repository.ItemSearchRepository;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryBuilders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.BulkFailureException;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.RefreshPolicy;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.stereotype.Service;
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ItemSearchService {
+    private static final IndexCoordinates ITEM_INDEX = IndexCoordinates.of("items");
+    // 요청마다 refresh 하지 않음 (검색 반영은 인덱스 refresh_interval 에 맡김)
+    private static final BulkOptions BULK_OPTIONS = BulkOptions.builder()
+            .withRefreshPolicy(RefreshPolicy.NONE)
+            .build();
+    // _bulk 본문에서 문서 JSON 외에 붙는 action 줄, 필드 이름 등의 대략적인 크기
+    private static final int BULK_ACTION_OVERHEAD_BYTES = 200;
+
     private final ElasticsearchOperations elasticsearchOperations;
-    private final ItemSearchRepository itemSearchRepository;
+    private final MeterRegistry meterRegistry;
+    private final int bulkMaxActions;
+    private final long bulkMaxBytes;
+
+    public ItemSearchService(
+            ElasticsearchOperations elasticsearchOperations,
+            MeterRegistry meterRegistry,
+            @Value("${indexing.bulk.max-actions:1000}") int bulkMaxActions,
+            @Value("${indexing.bulk.max-bytes:5242880}") long bulkMaxBytes) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.meterRegistry = meterRegistry;
+        this.bulkMaxActions = bulkMaxActions;
+        this.bulkMaxBytes = bulkMaxBytes;
+    }
 
     public List<ItemDocument> searchItems(String keyword, int pageNumber, int pageSize) {
         if (keyword == null || keyword.isBlank() || pageNumber < 0 || pageSize < 0) {
@@ -61,8 +91,96 @@ public class ItemSearchService {
                 .toList();
     }
 
-    public ItemDocument indexItem(InspectedItemDto inspectedItem) {
-        return itemSearchRepository.save(toDocument(inspectedItem));
+    // 여러 문서를 _bulk 요청으로 색인. maxActions / maxBytes 를 넘으면 나눠서 요청
+    // 문서 자체 오류(매핑 오류 등 4xx)는 재시도해도 같으므로 로그만 남기고 건너뜀
+    // 429 / 5xx 로 실패한 문서가 있으면 예외 - 호출 측에서 전체를 다시 시도 (같은 id 로 덮어쓰므로 중복 색인 없음)
+    public void bulkIndexItems(List<InspectedItemDto> inspectedItems) {
+        List<IndexQuery> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        int retryable = 0;
+        for (InspectedItemDto inspectedItem : inspectedItems) {
+            ItemDocument document = toDocument(inspectedItem);
+            long documentBytes = estimateBytes(document);
+            if (!chunk.isEmpty() && (chunk.size() >= bulkMaxActions || chunkBytes + documentBytes > bulkMaxBytes)) {
+                retryable += executeBulk(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(new IndexQueryBuilder()
+                    .withId(String.valueOf(document.getId()))
+                    .withObject(document)
+                    .build());
+            chunkBytes += documentBytes;
+        }
+        if (!chunk.isEmpty()) {
+            retryable += executeBulk(chunk);
+        }
+
+        if (retryable > 0) {
+            throw new RuntimeException(String.format(
+                    "Bulk indexing failed for %d of %d documents with retryable errors", retryable, inspectedItems.size()));
+        }
+    }
+
+    // 재시도 대상 실패 건수를 반환
+    private int executeBulk(List<IndexQuery> queries) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        Map<String, BulkFailureException.FailureDetails> failures = Map.of();
+        try {
+            elasticsearchOperations.bulkIndex(queries, BULK_OPTIONS, ITEM_INDEX);
+        } catch (BulkFailureException e) {
+            outcome = "partial";
+            failures = e.getFailedDocuments();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("elasticsearch.bulk.latency")
+                    .tag("index", ITEM_INDEX.getIndexName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+
+        int retryable = 0;
+        int rejected = 0;
+        for (Map.Entry<String, BulkFailureException.FailureDetails> failure : failures.entrySet()) {
+            Integer status = failure.getValue().status();
+            if (status == null || status == 429 || status >= 500) {
+                retryable++;
+            } else {
+                rejected++;
+                log.error("Dropping item {} rejected by Elasticsearch ({}): {}",
+                        failure.getKey(), status, failure.getValue().errorMessage());
+            }
+        }
+        countDocuments("indexed", queries.size() - failures.size());
+        countDocuments("rejected", rejected);
+        countDocuments("retryable", retryable);
+        return retryable;
+    }
+
+    private void countDocuments(String result, int count) {
+        if (count > 0) {
+            meterRegistry.counter("elasticsearch.bulk.documents", "result", result).increment(count);
+        }
+    }
+
+    private static long estimateBytes(ItemDocument document) {
+        long bytes = BULK_ACTION_OVERHEAD_BYTES;
+        bytes += utf8Length(document.getName());
+        bytes += utf8Length(document.getDescription());
+        bytes += utf8Length(document.getCategoryName());
+        if (document.getTags() != null) {
+            for (String tag : document.getTags()) {
+                bytes += utf8Length(tag) + 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
     }
 
     public static ItemDocument toDocument(InspectedItemDto inspectedItem) {
@@ -1,5 +1,7 @@
 package com.herofactory.subscription.infrastructure.messaging.consumer;
 
+import com.herofactory.config.amqp.RabbitMQConfig;
+import com.herofactory.infrastructure.messaging.MessageRetrier;
 import com.herofactory.subscription.service.MetricsService;
 //import ai.herofactoryservice.subscription.service.NotificationService;
 import com.herofactory.subscription.service.SubscriptionService;
@@ -20,8 +22,9 @@ public class SubscriptionConsumer {
     private final MetricsService metricsService;
     private final ObjectMapper objectMapper;
     private final PlatformTransactionManager transactionManager;
+    private final MessageRetrier messageRetrier;
 
-//    @RabbitListener(queues = "${subscription.queue.name}")
+//    @RabbitListener(queues = "${subscription.queue.name}", containerFactory = "subscriptionListenerContainerFactory")
 //    public void processSubscriptionMessage(Message message, Channel channel,
 //                                           @Header(AmqpHeaders.DELIVERY_TAG) long tag) {
 //        String messageId = message.getMessageProperties().getMessageId();
@@ -84,23 +87,16 @@ public class SubscriptionConsumer {
         try {
             log.error("Error processing subscription message: {}", messageId, e);
 
-            int retryCount = getRetryCount(message);
-            if (retryCount >= 3) {
-                log.warn("Message {} failed {} times, sending to DLQ", messageId, retryCount);
-                channel.basicReject(tag, false);
+            MessageRetrier.Outcome outcome = messageRetrier.retryOrDeadLetter(
+                    message, channel, tag, RabbitMQConfig.SUBSCRIPTION_QUEUE);
+            if (outcome.deadLettered()) {
+                log.warn("Message {} failed {} times, sent to DLQ", messageId, outcome.failedAttempts());
             } else {
-                log.warn("Message {} failed, attempt {}/3, requeueing", messageId, retryCount);
-                channel.basicNack(tag, false, true);
-                message.getMessageProperties().getHeaders().put("retry-count", retryCount + 1);
+                log.warn("Message {} failed, retry {}/{} in {}", messageId,
+                        outcome.failedAttempts(), outcome.maxRetries(), outcome.delay());
             }
         } catch (Exception ex) {
             log.error("Error handling message failure", ex);
         }
     }
-
-    private int getRetryCount(Message message) {
-        return (Integer) message.getMessageProperties()
-                .getHeaders()
-                .getOrDefault("retry-count", 0);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.herofactory.common.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// 실행 JDK 에 따라 가상 스레드(21+) 또는 플랫폼 스레드 풀(17) 모드로 동작하며, 두 모드 모두 같은 한도를 지켜야 함
+class BoundedExecutorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("동시 실행 maxConcurrency, 대기 queueCapacity 를 넘는 작업은 즉시 거절한다")
+    void rejectsWhenSaturated() {
+        // given: 동시 실행 2, 대기 1
+        executor = new BoundedExecutor("test", 2, 1, meterRegistry);
+        List<CompletableFuture<Void>> accepted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            accepted.add(CompletableFuture.runAsync(this::awaitRelease, executor));
+        }
+        await(() -> executor.activeCount() == 2 && executor.queuedCount() == 1);
+
+        // when & then
+        assertThatThrownBy(() -> executor.execute(this::awaitRelease))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("test");
+        assertThat(meterRegistry.counter("executor.bounded.rejected", "name", "test").count()).isEqualTo(1);
+        assertThat(accepted).noneMatch(CompletableFuture::isDone);
+    }
+
+    @Test
+    @DisplayName("실행 중인 작업이 끝나면 대기 작업을 실행하고 다시 작업을 받는다")
+    void acceptsAgainAfterDraining() throws Exception {
+        // given
+        executor = new BoundedExecutor("test", 1, 1, meterRegistry);
+        CompletableFuture<Void> running = CompletableFuture.runAsync(this::awaitRelease, executor);
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(this::awaitRelease, executor);
+        await(() -> executor.activeCount() == 1 && executor.queuedCount() == 1);
+
+        // when
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(3, TimeUnit.SECONDS);
+
+        // then
+        await(() -> executor.activeCount() == 0 && executor.queuedCount() == 0);
+        assertThat(CompletableFuture.supplyAsync(() -> "ok", executor).get(3, TimeUnit.SECONDS)).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("JDK 21 이상이면 가상 스레드, 그 미만이면 이름이 붙은 데몬 플랫폼 스레드에서 실행한다")
+    void picksThreadTypeByRuntime() throws Exception {
+        // given
+        executor = new BoundedExecutor("test", 1, 1, meterRegistry);
+
+        // when
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).get(3, TimeUnit.SECONDS);
+
+        // then
+        assertThat(thread.getName()).startsWith("test-");
+        if (Runtime.version().feature() >= 21) {
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+        } else {
+            assertThat(thread.isDaemon()).isTrue();
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 3s").isLessThan(deadline);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.herofactory.common.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MicroBatcherTest {
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+    private MicroBatcher<String, String> batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    @DisplayName("maxBatchSize 만큼 모이면 기다리지 않고 바로 전송하고 결과를 요청 순서대로 돌려준다")
+    void flushesWhenBatchIsFull() {
+        // given
+        batcher = new MicroBatcher<>("test", this::echo, 3, Duration.ofSeconds(10));
+
+        // when
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+        CompletableFuture<String> third = batcher.submit("c");
+
+        // then
+        assertThat(calls).containsExactly(List.of("a", "b", "c"));
+        assertThat(first.getNow(null)).isEqualTo("A");
+        assertThat(second.getNow(null)).isEqualTo("B");
+        assertThat(third.getNow(null)).isEqualTo("C");
+    }
+
+    @Test
+    @DisplayName("maxBatchSize 보다 적으면 maxWait 뒤에 모인 요청을 한 번에 전송한다")
+    void flushesAfterMaxWait() throws Exception {
+        // given
+        batcher = new MicroBatcher<>("test", this::echo, 10, Duration.ofMillis(100));
+
+        // when
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+
+        // then
+        assertThat(calls).isEmpty();
+        assertThat(first.get(3, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(second.get(3, TimeUnit.SECONDS)).isEqualTo("B");
+        assertThat(calls).containsExactly(List.of("a", "b"));
+    }
+
+    @Test
+    @DisplayName("close 하면 maxWait 을 기다리지 않고 남은 요청을 전송한다")
+    void closeFlushesPending() {
+        // given
+        batcher = new MicroBatcher<>("test", this::echo, 10, Duration.ofSeconds(10));
+        CompletableFuture<String> pending = batcher.submit("a");
+
+        // when
+        batcher.close();
+
+        // then
+        assertThat(pending.getNow(null)).isEqualTo("A");
+    }
+
+    @Test
+    @DisplayName("응답 결과 개수가 요청과 다르면 배치의 모든 요청을 실패 처리한다")
+    void failsAllWhenResultCountMismatches() {
+        // given: 두 건을 보냈는데 결과가 한 건
+        batcher = new MicroBatcher<>("test", requests -> CompletableFuture.completedFuture(List.of("A")),
+                2, Duration.ofSeconds(10));
+
+        // when
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+
+        // then
+        assertThatThrownBy(() -> first.get(3, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(3, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("batchCall 이 실패하면 원인 예외로 배치의 모든 요청을 실패 처리한다")
+    void propagatesBatchFailure() {
+        // given: executor 가 작업을 거부한 경우
+        batcher = new MicroBatcher<>("test", requests -> {
+            throw new RejectedExecutionException("saturated");
+        }, 2, Duration.ofSeconds(10));
+
+        // when
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+
+        // then
+        assertThat(first).isCompletedExceptionally();
+        assertThatThrownBy(() -> second.get(3, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    // 대문자로 바꿔 돌려줘 결과가 어느 요청의 것인지 확인
+    private CompletableFuture<List<String>> echo(List<String> requests) {
+        calls.add(requests);
+        return CompletableFuture.completedFuture(requests.stream().map(String::toUpperCase).toList());
+    }
+}
@@ -0,0 +1,70 @@
+package com.herofactory.config.openai.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.herofactory.config.openai.util.OpenAiRateLimiter.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class OpenAiRateLimiterRegistryTest {
+    private final OpenAiRateLimiterRegistry registry = new OpenAiRateLimiterRegistry(
+            100, 100_000, 1.0, Duration.ofSeconds(5), 10, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    @DisplayName("API 키 + 모델 조합마다 버킷을 하나씩 만든다")
+    void oneBucketPerKeyAndModel() {
+        // when
+        OpenAiRateLimiter chat = registry.forModel("sk-key-a", "gpt-4o");
+        OpenAiRateLimiter embedding = registry.forModel("sk-key-a", "text-embedding-3-small");
+        OpenAiRateLimiter otherKey = registry.forModel("sk-key-b", "gpt-4o");
+
+        // then
+        assertThat(registry.forModel("sk-key-a", "gpt-4o")).isSameAs(chat);
+        assertThat(embedding).isNotSameAs(chat);
+        assertThat(otherKey).isNotSameAs(chat);
+        assertThat(chat.getName()).startsWith("gpt-4o@").doesNotContain("sk-key-a");
+    }
+
+    @Test
+    @DisplayName("429 정지는 해당 버킷에만 적용된다")
+    void pauseIsPerBucket() {
+        // given
+        OpenAiRateLimiter chat = registry.forModel("sk-key-a", "gpt-4o");
+        OpenAiRateLimiter inspection = registry.forModel("sk-key-b", "gpt-3.5-turbo");
+
+        // when
+        chat.pause(Duration.ofSeconds(10));
+
+        // then
+        assertThat(chat.acquire(Lane.PROMPT, 1)).isNotDone();
+        assertThat(inspection.acquire(Lane.INSPECTION, 1)).isDone();
+    }
+
+    @Test
+    @DisplayName("응답 헤더의 한도/잔여량은 해당 버킷에만 반영된다")
+    void headersArePerBucket() {
+        // given
+        OpenAiRateLimiter chat = registry.forModel("sk-key-a", "gpt-4o");
+        OpenAiRateLimiter embedding = registry.forModel("sk-key-a", "text-embedding-3-small");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-ratelimit-limit-requests", "500");
+        headers.set("x-ratelimit-remaining-requests", "0");
+        headers.set("x-ratelimit-reset-requests", "10s");
+
+        // when
+        chat.updateFromHeaders(headers);
+
+        // then
+        assertThat(chat.acquire(Lane.PROMPT, 1)).isNotDone();
+        assertThat(embedding.acquire(Lane.PROMPT, 1)).isDone();
+    }
+}
@@ -0,0 +1,145 @@
+package com.herofactory.config.openai.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.herofactory.common.exception.RateLimitException;
+import com.herofactory.config.openai.util.OpenAiRateLimiter.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OpenAiRateLimiterTest {
+    private OpenAiRateLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        if (limiter != null) {
+            limiter.shutdown();
+        }
+    }
+
+    private OpenAiRateLimiter limiter(double rpm, double tpm, Duration maxWait, int maxQueueSize) {
+        limiter = new OpenAiRateLimiter(rpm, tpm, 1.0, maxWait, maxQueueSize, new SimpleMeterRegistry());
+        return limiter;
+    }
+
+    @Test
+    @DisplayName("RPM 버킷이 비면 대기하다가 채워지는 시점에 permit 을 준다")
+    void refillsRequestBucket() throws Exception {
+        // given: 초당 2건씩 채워지는 버킷을 모두 사용
+        OpenAiRateLimiter limiter = limiter(120, 1_000_000, Duration.ofSeconds(5), 10);
+        for (int i = 0; i < 120; i++) {
+            assertThat(limiter.acquire(Lane.PROMPT, 1)).isDone();
+        }
+
+        // when
+        long start = System.nanoTime();
+        CompletableFuture<Void> next = limiter.acquire(Lane.PROMPT, 1);
+
+        // then
+        assertThat(next).isNotDone();
+        next.get(3, TimeUnit.SECONDS);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThan(Duration.ofMillis(300));
+    }
+
+    @Test
+    @DisplayName("TPM 버킷은 요청의 토큰 수만큼 차감된다")
+    void refillsTokenBucket() throws Exception {
+        // given: 초당 100 토큰
+        OpenAiRateLimiter limiter = limiter(10_000, 6_000, Duration.ofSeconds(5), 10);
+        assertThat(limiter.acquire(Lane.PROMPT, 5_950)).isDone();
+
+        // when
+        CompletableFuture<Void> small = limiter.acquire(Lane.PROMPT, 40);
+        CompletableFuture<Void> large = limiter.acquire(Lane.PROMPT, 100);
+
+        // then
+        assertThat(small).isDone();
+        assertThat(large).isNotDone();
+        large.get(3, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 바로 RateLimitException 으로 실패한다")
+    void rejectsWhenQueueIsFull() {
+        // given
+        OpenAiRateLimiter limiter = limiter(1, 1_000_000, Duration.ofSeconds(30), 1);
+        limiter.acquire(Lane.PROMPT, 1);
+        CompletableFuture<Void> queued = limiter.acquire(Lane.PROMPT, 1);
+
+        // when
+        CompletableFuture<Void> rejected = limiter.acquire(Lane.PROMPT, 1);
+
+        // then
+        assertThat(queued).isNotDone();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(RateLimitException.class);
+        // 대기열은 lane 별이라 다른 lane 은 받아줌
+        assertThat(limiter.acquire(Lane.INSPECTION, 1)).isNotDone();
+    }
+
+    @Test
+    @DisplayName("maxWait 안에 permit 을 받지 못하면 RateLimitException 으로 실패한다")
+    void expiresAfterMaxWait() {
+        // given
+        OpenAiRateLimiter limiter = limiter(1, 1_000_000, Duration.ofMillis(100), 10);
+        limiter.acquire(Lane.PROMPT, 1);
+
+        // when
+        CompletableFuture<Void> waiting = limiter.acquire(Lane.PROMPT, 1);
+
+        // then
+        assertThatThrownBy(() -> waiting.get(2, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RateLimitException.class);
+    }
+
+    @Test
+    @DisplayName("한 버킷을 나눠 쓰는 프롬프트 분석과 자동 검수 대기열을 번갈아 처리한다")
+    void servesLanesRoundRobin() throws Exception {
+        // given: 초당 100 토큰, 버킷을 비운 뒤 프롬프트 분석 두 건이 먼저 줄을 섬
+        OpenAiRateLimiter limiter = limiter(10_000, 6_000, Duration.ofSeconds(5), 10);
+        limiter.acquire(Lane.PROMPT, 6_000);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        // when
+        futures.add(limiter.acquire(Lane.PROMPT, 10).thenRun(() -> order.add("prompt-1")));
+        futures.add(limiter.acquire(Lane.PROMPT, 10).thenRun(() -> order.add("prompt-2")));
+        futures.add(limiter.acquire(Lane.INSPECTION, 10).thenRun(() -> order.add("inspection-1")));
+        futures.add(limiter.acquire(Lane.INSPECTION, 10).thenRun(() -> order.add("inspection-2")));
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(3, TimeUnit.SECONDS);
+
+        // then
+        assertThat(order).containsExactly("prompt-1", "inspection-1", "prompt-2", "inspection-2");
+    }
+
+    @Test
+    @DisplayName("reconcile 은 추정보다 적게 쓴 토큰은 돌려주고 더 쓴 토큰은 추가로 차감한다")
+    void reconcilesActualUsage() {
+        // given
+        OpenAiRateLimiter limiter = limiter(10_000, 1_000, Duration.ofSeconds(5), 10);
+        assertThat(limiter.acquire(Lane.PROMPT, 1_000)).isDone();
+
+        // when: 1000 을 예약했지만 실제로는 100 사용
+        limiter.reconcile(1_000, 100);
+
+        // then
+        assertThat(limiter.acquire(Lane.PROMPT, 800)).isDone();
+
+        // when: 50 을 예약했지만 실제로는 150 사용 (남은 50 토큰보다 많이 차감되어 잔여량이 음수가 됨)
+        assertThat(limiter.acquire(Lane.PROMPT, 50)).isDone();
+        limiter.reconcile(50, 150);
+
+        // then
+        assertThat(limiter.acquire(Lane.PROMPT, 60)).isNotDone();
+    }
+}
@@ -0,0 +1,88 @@
+package com.herofactory.config.openai.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.herofactory.common.exception.RateLimitException;
+import com.herofactory.config.openai.util.OpenAiRateLimiter.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OpenAiRetrierTest {
+    private final OpenAiRateLimiter limiter = new OpenAiRateLimiter(
+            1_000, 1_000_000, 1.0, Duration.ofSeconds(5), 10, new SimpleMeterRegistry());
+    private final OpenAiRetrier retrier = new OpenAiRetrier(Runnable::run, 3, Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    @DisplayName("429 는 백오프 후 다시 permit 을 받아 재시도한다")
+    void retriesRateLimitedCalls() throws Exception {
+        // given: 두 번 429 후 성공
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        String result = retrier.call(limiter, Lane.PROMPT, 1, () -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new RateLimitException("429", Duration.ZERO);
+            }
+            return "ok";
+        }).get(3, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("재시도 횟수를 넘기면 마지막 RateLimitException 으로 실패한다")
+    void givesUpAfterMaxRetries() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when & then
+        assertThatThrownBy(() -> retrier.call(limiter, Lane.PROMPT, 1, () -> {
+                    calls.incrementAndGet();
+                    throw new RateLimitException("429", Duration.ZERO);
+                }).get(3, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RateLimitException.class);
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("재시도 대상이 아닌 예외는 바로 실패한다")
+    void doesNotRetryOtherErrors() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when & then
+        assertThatThrownBy(() -> retrier.call(limiter, Lane.PROMPT, 1, () -> {
+                    calls.incrementAndGet();
+                    throw new RateLimitException("queue full");
+                }).get(3, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RateLimitException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("백오프는 0 이상 min(최대 지연, base * 2^attempt) 미만에서 무작위로 고른다")
+    void backoffIsBoundedFullJitter() {
+        OpenAiRetrier slow = new OpenAiRetrier(Runnable::run, 10, Duration.ofSeconds(1));
+        for (int i = 0; i < 100; i++) {
+            assertThat(slow.backoffMillis(0)).isBetween(0L, 999L);
+            assertThat(slow.backoffMillis(2)).isBetween(0L, 3_999L);
+            assertThat(slow.backoffMillis(10)).isBetween(0L, 19_999L);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.herofactory.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PgVectorTest {
+
+    @Test
+    @DisplayName("바이너리 포맷으로 인코딩한 벡터를 그대로 복원한다")
+    void binaryRoundTrip() throws Exception {
+        // given
+        float[] values = {0.1f, -0.25f, 3.5f, 0f};
+        PgVector vector = new PgVector(values);
+
+        // when
+        byte[] bytes = vector.toBytes();
+        PgVector decoded = new PgVector();
+        decoded.setByteValue(bytes, 0);
+
+        // then
+        assertThat(bytes).hasSize(4 + values.length * Float.BYTES);
+        assertThat(decoded.toArray()).containsExactly(values);
+    }
+
+    @Test
+    @DisplayName("pgvector 텍스트 포맷을 파싱한다")
+    void parseText() {
+        // when
+        PgVector vector = new PgVector();
+        vector.setValue("[0.5,-1,2.25]");
+
+        // then
+        assertThat(vector.toArray()).containsExactly(0.5f, -1f, 2.25f);
+        assertThat(vector.getValue()).isEqualTo("[0.5,-1.0,2.25]");
+        assertThat(PgVector.parse("[]")).isEmpty();
+    }
+}
@@ -0,0 +1,185 @@
+package com.herofactory.infrastructure.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class AuditLogWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // batchUpdate 가 성공한 행의 message_id / prompt_id
+    private final List<String> insertedIds = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    private Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private Path fallbackFile;
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        given(transactionManager.getTransaction(any())).willReturn(new SimpleTransactionStatus());
+        fallbackFile = tempDir.resolve("audit-fallback.jsonl");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("batchSize 개가 모이면 flushInterval 을 기다리지 않고 기록한다")
+    void flushesWhenBatchIsFull() {
+        // given
+        givenInsertSucceeds();
+        writer = start(3, Duration.ofSeconds(5));
+
+        // when
+        writer.append(AuditEntry.promptMessage("m-1", "p-1", "SENT", null));
+        writer.append(AuditEntry.promptMessage("m-2", "p-1", "SENT", null));
+        writer.append(AuditEntry.promptMessage("m-3", "p-1", "SENT", null));
+
+        // then
+        verify(jdbcTemplate, timeout(2_000)).batchUpdate(anyString(), anyList());
+        writer.shutdown();
+        assertThat(insertedIds).containsExactly("m-1", "m-2", "m-3");
+    }
+
+    @Test
+    @DisplayName("batchSize 보다 적어도 flushInterval 이 지나면 모인 항목을 한 번에 기록한다")
+    void flushesAfterInterval() {
+        // given
+        givenInsertSucceeds();
+        writer = start(100, Duration.ofMillis(100));
+
+        // when
+        writer.append(AuditEntry.promptMessage("m-1", "p-1", "SENT", null));
+        writer.append(AuditEntry.promptLog("p-1", "CREATED", "created"));
+
+        // then: message_logs / prompt_logs 한 번씩
+        verify(jdbcTemplate, timeout(2_000).times(2)).batchUpdate(anyString(), anyList());
+        writer.shutdown();
+        assertThat(insertedIds).containsExactlyInAnyOrder("m-1", "p-1");
+    }
+
+    @Test
+    @DisplayName("제약 조건을 위반한 항목만 버리고 같은 배치의 나머지는 기록한다")
+    void dropsOnlyConstraintViolations() {
+        // given: message_id 가 null 인 행은 NOT NULL 위반
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> row[0] == null)) {
+                throw new DataIntegrityViolationException("message_id is null");
+            }
+            rows.forEach(row -> insertedIds.add((String) row[0]));
+            return new int[rows.size()];
+        });
+        writer = start(3, Duration.ofSeconds(5));
+
+        // when
+        writer.append(AuditEntry.promptMessage("m-1", "p-1", "SENT", null));
+        writer.append(AuditEntry.promptMessage(null, "p-1", "FAILED", "no message id"));
+        writer.append(AuditEntry.promptMessage("m-3", "p-1", "SENT", null));
+        writer.shutdown();
+
+        // then
+        assertThat(insertedIds).containsExactly("m-1", "m-3");
+        assertThat(fallbackFile).doesNotExist();
+        assertThat(meterRegistry.counter("audit.log.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("DB 에 기록하지 못하면 fallback 파일에 남긴다")
+    void spillsWhenDatabaseIsUnavailable() throws Exception {
+        // given
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willThrow(new CannotGetJdbcConnectionException("connection refused"));
+        writer = start(2, Duration.ofSeconds(5));
+
+        // when
+        writer.append(AuditEntry.promptMessage("m-1", "p-1", "SENT", null));
+        writer.append(AuditEntry.promptLog("p-1", "CREATED", "created"));
+        writer.shutdown();
+
+        // then
+        List<AuditEntry> spilled = readFallbackFile();
+        assertThat(spilled).hasSize(2);
+        assertThat(spilled.get(0)).isInstanceOf(AuditEntry.MessageLogEntry.class);
+        assertThat(spilled.get(1)).isInstanceOf(AuditEntry.PromptLogEntry.class);
+    }
+
+    @Test
+    @DisplayName("기동 시 이전 실행의 fallback 파일을 DB 로 옮기고 파일을 지운다")
+    void replaysFallbackFileOnStart() throws Exception {
+        // given
+        givenInsertSucceeds();
+        Files.write(fallbackFile, List.of(
+                objectMapper.writeValueAsString(AuditEntry.promptMessage("m-1", "p-1", "SENT", null)),
+                "not json",
+                objectMapper.writeValueAsString(AuditEntry.paymentMessage("m-2", "pay-1", "SENT", null))
+        ), StandardCharsets.UTF_8);
+
+        // when
+        writer = start(200, Duration.ofSeconds(5));
+
+        // then
+        assertThat(insertedIds).containsExactly("m-1", "m-2");
+        assertThat(fallbackFile).doesNotExist();
+        assertThat(fallbackFile.resolveSibling("audit-fallback.jsonl.replaying")).doesNotExist();
+    }
+
+    private AuditLogWriter start(int batchSize, Duration flushInterval) {
+        AuditLogWriter auditLogWriter = new AuditLogWriter(jdbcTemplate, transactionManager, objectMapper,
+                meterRegistry, 100, batchSize, flushInterval, Duration.ofMillis(50), Duration.ofSeconds(5),
+                fallbackFile.toString());
+        auditLogWriter.start();
+        return auditLogWriter;
+    }
+
+    private void givenInsertSucceeds() {
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            rows.forEach(row -> insertedIds.add((String) row[0]));
+            return new int[rows.size()];
+        });
+    }
+
+    private List<AuditEntry> readFallbackFile() throws Exception {
+        List<AuditEntry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(fallbackFile, StandardCharsets.UTF_8)) {
+            entries.add(objectMapper.readValue(line, AuditEntry.class));
+        }
+        return entries;
+    }
+}
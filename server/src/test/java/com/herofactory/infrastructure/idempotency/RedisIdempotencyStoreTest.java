@@ -0,0 +1,83 @@
+package com.herofactory.infrastructure.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+class RedisIdempotencyStoreTest {
+    private static final Duration TTL = Duration.ofDays(7);
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private IdempotencyStore fallback;
+    private RedisIdempotencyStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        fallback = mock(IdempotencyStore.class);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        store = new RedisIdempotencyStore(redisTemplate, fallback, TTL);
+    }
+
+    @Test
+    @DisplayName("처리 완료로 기록한 messageId 는 중복으로 판단한다")
+    void detectsProcessedMessage() {
+        // given
+        given(redisTemplate.hasKey("mq:processed:m-1")).willReturn(true);
+
+        // when
+        store.markProcessed("m-1");
+
+        // then
+        verify(valueOperations).setIfAbsent("mq:processed:m-1", "1", TTL);
+        assertThat(store.isProcessed("m-1")).isTrue();
+        assertThat(store.isProcessed("m-2")).isFalse();
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", " "})
+    @DisplayName("messageId 가 없으면 항상 처리되지 않은 것으로 보고 처리 완료도 기록하지 않는다")
+    void ignoresMissingMessageId(String messageId) {
+        // when
+        store.markProcessed(messageId);
+        boolean processed = store.isProcessed(messageId);
+
+        // then
+        assertThat(processed).isFalse();
+        verify(redisTemplate, never()).hasKey(anyString());
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    @DisplayName("Redis 오류 시 fallback 저장소로 판단한다")
+    void fallsBackWhenRedisFails() {
+        // given
+        given(redisTemplate.hasKey("mq:processed:m-1"))
+                .willThrow(new RedisConnectionFailureException("connection refused"));
+        given(fallback.isProcessed("m-1")).willReturn(true);
+
+        // when & then
+        assertThat(store.isProcessed("m-1")).isTrue();
+    }
+}
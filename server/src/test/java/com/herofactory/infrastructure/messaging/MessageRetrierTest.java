@@ -0,0 +1,137 @@
+package com.herofactory.infrastructure.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.herofactory.config.amqp.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+
+class MessageRetrierTest {
+    private static final String WORK_QUEUE = "prompt.queue";
+    private static final long TAG = 7L;
+    private static final Duration[] DELAYS = {Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(5)};
+
+    private ReliablePublisher reliablePublisher;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        reliablePublisher = mock(ReliablePublisher.class);
+        channel = mock(Channel.class);
+        given(reliablePublisher.send(anyString(), anyString(), any(Message.class)))
+                .willReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @ParameterizedTest(name = "이전 시도 {0}회 -> {1}번째 실패, 지연 {2}")
+    @CsvSource({
+            "0, 1, PT5S",
+            "1, 2, PT30S",
+            "2, 3, PT5M",
+            "4, 5, PT5M" // 단계가 모자라면 마지막 지연 반복
+    })
+    @DisplayName("실패 횟수에 맞는 지연 큐로 시도 횟수 헤더와 함께 영속 메시지로 재발행하고 원본을 ack 한다")
+    void republishesToDelayTier(int previousAttempts, int failedAttempts, Duration delay) throws Exception {
+        // given
+        MessageRetrier retrier = new MessageRetrier(reliablePublisher, DELAYS, 5);
+        Message message = inbound(previousAttempts);
+
+        // when
+        MessageRetrier.Outcome outcome = retrier.retryOrDeadLetter(message, channel, TAG, WORK_QUEUE);
+
+        // then
+        ArgumentCaptor<Message> published = ArgumentCaptor.forClass(Message.class);
+        verify(reliablePublisher).send(eq(RabbitMQConfig.RETRY_EXCHANGE),
+                eq(RabbitMQConfig.retryQueueName(WORK_QUEUE, delay)), published.capture());
+        verify(channel).basicAck(TAG, false);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+
+        MessageProperties properties = published.getValue().getMessageProperties();
+        assertThat(MessageRetrier.attemptOf(published.getValue())).isEqualTo(failedAttempts);
+        assertThat(properties.getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+        assertThat(properties.getMessageId()).isEqualTo("message-1");
+        assertThat(published.getValue().getBody()).isEqualTo(message.getBody());
+        assertThat(outcome.deadLettered()).isFalse();
+        assertThat(outcome.failedAttempts()).isEqualTo(failedAttempts);
+        assertThat(outcome.delay()).isEqualTo(delay);
+    }
+
+    @Test
+    @DisplayName("maxRetries 번 재시도한 뒤 다시 실패하면 재발행하지 않고 reject 해 DLQ 로 보낸다")
+    void deadLettersAfterMaxRetries() throws Exception {
+        // given
+        MessageRetrier retrier = new MessageRetrier(reliablePublisher, DELAYS, 3);
+
+        // when
+        MessageRetrier.Outcome outcome = retrier.retryOrDeadLetter(inbound(3), channel, TAG, WORK_QUEUE);
+
+        // then
+        verify(channel).basicReject(TAG, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(reliablePublisher, never()).send(anyString(), anyString(), any(Message.class));
+        assertThat(outcome.deadLettered()).isTrue();
+        assertThat(outcome.failedAttempts()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("마지막 허용 재시도는 DLQ 로 보내지 않고 재발행한다")
+    void lastRetryIsStillRepublished() throws Exception {
+        // given
+        MessageRetrier retrier = new MessageRetrier(reliablePublisher, DELAYS, 3);
+
+        // when
+        MessageRetrier.Outcome outcome = retrier.retryOrDeadLetter(inbound(2), channel, TAG, WORK_QUEUE);
+
+        // then
+        verify(channel).basicAck(TAG, false);
+        assertThat(outcome.deadLettered()).isFalse();
+        assertThat(outcome.failedAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("재발행이 confirm 되지 않으면 원본을 ack 하지 않는다")
+    void doesNotAckWhenRepublishFails() throws Exception {
+        // given
+        MessageRetrier retrier = new MessageRetrier(reliablePublisher, DELAYS, 3);
+        given(reliablePublisher.send(anyString(), anyString(), any(Message.class)))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("nack")));
+
+        // when & then
+        assertThatThrownBy(() -> retrier.retryOrDeadLetter(inbound(0), channel, TAG, WORK_QUEUE))
+                .isInstanceOf(CompletionException.class);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    // 소비자가 받은 메시지처럼 deliveryMode 없이 receivedDeliveryMode 만 채움
+    private static Message inbound(int previousAttempts) {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId("message-1");
+        properties.setDeliveryMode(null);
+        properties.setReceivedDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        if (previousAttempts > 0) {
+            properties.setHeader(MessageRetrier.ATTEMPT_HEADER, previousAttempts);
+        }
+        return new Message("{\"promptId\":\"p-1\"}".getBytes(), properties);
+    }
+}
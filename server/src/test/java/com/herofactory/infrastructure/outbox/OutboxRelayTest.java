@@ -0,0 +1,123 @@
+package com.herofactory.infrastructure.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.herofactory.infrastructure.audit.AuditLogWriter;
+import com.herofactory.infrastructure.messaging.ReliablePublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class OutboxRelayTest {
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private OutboxRepository outboxRepository;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        given(transactionManager.getTransaction(any())).willReturn(new SimpleTransactionStatus());
+        relay = new OutboxRelay(outboxRepository, mock(ReliablePublisher.class), kafkaTemplate,
+                mock(AuditLogWriter.class), transactionManager, new SimpleMeterRegistry(),
+                2, 5, Duration.ofSeconds(5), Duration.ofSeconds(30), MAX_BACKOFF);
+    }
+
+    @Test
+    @DisplayName("같은 aggregate 의 이벤트는 앞 이벤트가 확인된 뒤에 발행한다")
+    void publishesSameAggregateSequentially() {
+        // given: 발행 확인이 늦게 오는 브로커
+        OutboxEvent first = event(1, "item-1");
+        OutboxEvent second = event(2, "item-1");
+        given(outboxRepository.claimBatch(anyInt(), any())).willReturn(List.of(first, second), List.of());
+        List<CompletableFuture<?>> acks = new CopyOnWriteArrayList<>();
+        List<Boolean> previousAckedWhenSent = new CopyOnWriteArrayList<>();
+        given(kafkaTemplate.send(anyString(), anyString(), anyString())).willAnswer(invocation -> {
+            previousAckedWhenSent.add(acks.stream().allMatch(CompletableFuture::isDone));
+            CompletableFuture<SendResult<String, String>> ack = new CompletableFuture<>();
+            ack.completeOnTimeout(null, 100, TimeUnit.MILLISECONDS);
+            acks.add(ack);
+            return ack;
+        });
+
+        // when
+        relay.relay();
+
+        // then
+        assertThat(previousAckedWhenSent).containsExactly(true, true);
+        verify(outboxRepository).deleteAll(List.of(first, second));
+    }
+
+    @Test
+    @DisplayName("앞 이벤트가 실패한 aggregate 의 뒤 이벤트는 보내지 않고 선점만 해제한다")
+    void holdsLaterEventsAfterFailure() {
+        // given
+        OutboxEvent failing = event(1, "item-1");
+        OutboxEvent held = event(2, "item-1");
+        OutboxEvent other = event(3, "item-2");
+        given(outboxRepository.claimBatch(anyInt(), any())).willReturn(List.of(failing, held, other), List.of());
+        given(kafkaTemplate.send(anyString(), eq("item-1"), anyString()))
+                .willReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")));
+        given(kafkaTemplate.send(anyString(), eq("item-2"), anyString()))
+                .willReturn(CompletableFuture.completedFuture(null));
+
+        // when
+        relay.relay();
+
+        // then
+        verify(kafkaTemplate, times(1)).send(anyString(), eq("item-1"), anyString());
+        verify(outboxRepository).deleteAll(List.of(other));
+        verify(outboxRepository).reschedule(argThat(errors -> errors.keySet().equals(Set.of(failing))),
+                eq(MAX_BACKOFF));
+        verify(outboxRepository).release(List.of(held));
+    }
+
+    @Test
+    @DisplayName("배치가 가득 차 있으면 다음 배치를 이어서 처리하고, 덜 차면 멈춘다")
+    void drainsWhileBatchesAreFull() {
+        // given: batchSize 2
+        given(outboxRepository.claimBatch(anyInt(), any()))
+                .willReturn(List.of(event(1, "item-1"), event(2, "item-2")), List.of(event(3, "item-3")));
+        given(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .willReturn(CompletableFuture.completedFuture(null));
+
+        // when
+        relay.relay();
+
+        // then
+        verify(outboxRepository, times(2)).claimBatch(eq(2), any());
+        verify(outboxRepository, times(2)).deleteAll(any());
+        verify(outboxRepository, never()).release(any());
+    }
+
+    private static OutboxEvent event(long id, String itemId) {
+        return new OutboxEvent(id, OutboxEvent.Destination.KAFKA, "item.original", itemId, "m-" + id,
+                OutboxRelay.AGGREGATE_ITEM, itemId, "{\"id\":" + id + "}", 0);
+    }
+}
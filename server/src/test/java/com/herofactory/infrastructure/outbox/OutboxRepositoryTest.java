@@ -0,0 +1,149 @@
+package com.herofactory.infrastructure.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 테스트 DB(postgres-test)에서 선점/lease/재시도 SQL 을 검증. 테스트마다 트랜잭션이 롤백되므로 CURRENT_TIMESTAMP 가 고정됨
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OutboxRepository.class)
+class OutboxRepositoryTest {
+    private static final Duration LEASE = Duration.ofSeconds(45);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS outbox_events (
+                    id BIGSERIAL PRIMARY KEY,
+                    destination VARCHAR(20) NOT NULL,
+                    target VARCHAR(255) NOT NULL,
+                    routing_key VARCHAR(255),
+                    message_id VARCHAR(255) NOT NULL,
+                    aggregate_type VARCHAR(50) NOT NULL,
+                    aggregate_id VARCHAR(255),
+                    payload TEXT NOT NULL,
+                    attempts INTEGER NOT NULL DEFAULT 0,
+                    last_error TEXT,
+                    available_at TIMESTAMP NOT NULL,
+                    created_at TIMESTAMP NOT NULL
+                )
+                """);
+        jdbcTemplate.execute("DELETE FROM outbox_events");
+    }
+
+    @Test
+    @DisplayName("기록 순서대로 limit 개를 선점하고, lease 중인 행은 다시 선점하지 않는다")
+    void claimsInOrderAndLeases() {
+        // given
+        append("m-1", "item-1");
+        append("m-2", "item-2");
+        append("m-3", "item-3");
+
+        // when
+        List<OutboxEvent> first = outboxRepository.claimBatch(2, LEASE);
+        List<OutboxEvent> second = outboxRepository.claimBatch(2, LEASE);
+
+        // then
+        assertThat(first).extracting(OutboxEvent::messageId).containsExactly("m-1", "m-2");
+        assertThat(second).extracting(OutboxEvent::messageId).containsExactly("m-3");
+        assertThat(outboxRepository.claimBatch(2, LEASE)).isEmpty();
+        assertThat(secondsUntilAvailable("m-1")).isBetween(44L, 45L);
+    }
+
+    @Test
+    @DisplayName("재시도 예약은 시도 횟수와 오류를 기록하고 backoff 동안 선점 대상에서 빠진다")
+    void reschedulesWithBackoff() {
+        // given
+        append("m-1", "item-1");
+        OutboxEvent claimed = outboxRepository.claimBatch(10, LEASE).get(0);
+
+        // when
+        outboxRepository.reschedule(Map.of(claimed, "broker unavailable"), MAX_BACKOFF);
+
+        // then: attempts 0 -> 2^0 = 1초 뒤
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT attempts, last_error FROM outbox_events WHERE message_id = 'm-1'");
+        assertThat(row).containsEntry("attempts", 1).containsEntry("last_error", "broker unavailable");
+        assertThat(secondsUntilAvailable("m-1")).isEqualTo(1L);
+        assertThat(outboxRepository.claimBatch(10, LEASE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("같은 aggregate 의 앞 이벤트가 재시도 대기 중이면 뒤 이벤트는 선점하지 않는다")
+    void holdsLaterEventsOfFailedAggregate() {
+        // given: item-1 의 첫 이벤트는 실패해 재시도 대기, 두 번째 이벤트는 보내지 않고 선점만 해제
+        append("m-1", "item-1");
+        append("m-2", "item-1");
+        append("m-3", "item-2");
+        List<OutboxEvent> claimed = outboxRepository.claimBatch(10, LEASE);
+        outboxRepository.reschedule(Map.of(claimed.get(0), "timeout"), MAX_BACKOFF);
+        outboxRepository.release(List.of(claimed.get(1), claimed.get(2)));
+
+        // when
+        List<OutboxEvent> next = outboxRepository.claimBatch(10, LEASE);
+
+        // then
+        assertThat(next).extracting(OutboxEvent::messageId).containsExactly("m-3");
+    }
+
+    @Test
+    @DisplayName("선점 해제한 행은 시도 횟수를 늘리지 않고 바로 다시 선점된다")
+    void releasedEventsAreClaimableAgain() {
+        // given
+        append("m-1", "item-1");
+        append("m-2", "item-1");
+        List<OutboxEvent> claimed = outboxRepository.claimBatch(10, LEASE);
+
+        // when
+        outboxRepository.release(claimed);
+        List<OutboxEvent> reclaimed = outboxRepository.claimBatch(10, LEASE);
+
+        // then
+        assertThat(reclaimed).extracting(OutboxEvent::messageId).containsExactly("m-1", "m-2");
+        assertThat(reclaimed).extracting(OutboxEvent::attempts).containsOnly(0);
+    }
+
+    @Test
+    @DisplayName("발행 확인된 행은 삭제한다")
+    void deletesPublishedEvents() {
+        // given
+        append("m-1", "item-1");
+        append("m-2", "item-2");
+        List<OutboxEvent> claimed = outboxRepository.claimBatch(10, LEASE);
+
+        // when
+        outboxRepository.deleteAll(claimed.subList(0, 1));
+
+        // then
+        assertThat(jdbcTemplate.queryForList("SELECT message_id FROM outbox_events", String.class))
+                .containsExactly("m-2");
+    }
+
+    private void append(String messageId, String aggregateId) {
+        outboxRepository.append(OutboxEvent.kafka("item.original", aggregateId, messageId,
+                OutboxRelay.AGGREGATE_ITEM, aggregateId, "{}"));
+    }
+
+    private long secondsUntilAvailable(String messageId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT round(extract(epoch FROM available_at - CURRENT_TIMESTAMP))::bigint FROM outbox_events WHERE message_id = ?",
+                Long.class, messageId);
+    }
+}
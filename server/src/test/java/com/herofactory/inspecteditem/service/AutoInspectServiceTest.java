@@ -0,0 +1,136 @@
+package com.herofactory.inspecteditem.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.herofactory.config.openai.ChatGptClient;
+import com.herofactory.config.openai.ChatGptClient.ChatPolicy;
+import com.herofactory.inspecteditem.dto.AutoInspectionResult;
+import com.herofactory.shop.dto.ItemDto;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class AutoInspectServiceTest {
+    private static final String SINGLE_RESULT = "{\"status\":\"BAD\",\"tags\":[\"단건\"]}";
+
+    private ChatGptClient chatGptClient;
+    private AutoInspectService autoInspectService;
+
+    @BeforeEach
+    void setUp() {
+        chatGptClient = mock(ChatGptClient.class);
+        // 배치 크기 1 이면 MicroBatcher 없이 inspectBatchAsync 를 직접 호출해 검증
+        autoInspectService = new AutoInspectService(chatGptClient, mock(InspectionResultCache.class),
+                1, Duration.ofMillis(50));
+        given(chatGptClient.getResultForContentWithPolicyAsync(anyString(), any(ChatPolicy.class)))
+                .willReturn(CompletableFuture.completedFuture(SINGLE_RESULT));
+    }
+
+    @Test
+    @DisplayName("배치 응답 줄 순서와 상관없이 index 로 각 아이템에 결과를 매칭한다")
+    void mapsBatchResultsByIndex() throws Exception {
+        // given
+        List<ItemDto> items = List.of(item(1), item(2), item(3));
+        givenBatchResponse("""
+                {"index":3,"status":"GOOD","tags":["3번"]}
+                {"index":1,"status":"GOOD","tags":["1번"]}
+                {"index":2,"status":"BAD","tags":["2번"]}
+                """);
+
+        // when
+        List<AutoInspectionResult> results = inspectBatch(items);
+
+        // then
+        assertThat(results).extracting(result -> result.getTags()[0]).containsExactly("1번", "2번", "3번");
+        assertThat(results).extracting(AutoInspectionResult::getStatus).containsExactly("GOOD", "BAD", "GOOD");
+        verify(chatGptClient, never()).getResultForContentWithPolicyAsync(anyString(), any(ChatPolicy.class));
+    }
+
+    @Test
+    @DisplayName("배치 요청은 아이템 수에 비례한 완료 토큰을 예상치로 넘긴다")
+    void passesCompletionTokensPerItem() throws Exception {
+        // given
+        List<ItemDto> items = List.of(item(1), item(2), item(3));
+        givenBatchResponse("""
+                {"index":1,"status":"GOOD","tags":[]}
+                {"index":2,"status":"GOOD","tags":[]}
+                {"index":3,"status":"GOOD","tags":[]}
+                """);
+
+        // when
+        inspectBatch(items);
+
+        // then
+        verify(chatGptClient).getResultForContentWithPolicyAsync(anyString(), any(ChatPolicy.class), eq(64 * 3));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+            "",                                                    // 결과 누락
+            "{\"index\":4,\"status\":\"GOOD\",\"tags\":[]}",      // 범위 밖 index
+            "{\"index\":0,\"status\":\"GOOD\",\"tags\":[]}",      // 범위 밖 index
+            "{\"index\":2,\"status\":\"GOOD\",\"tags\":[]}\n{\"index\":2,\"status\":\"BAD\",\"tags\":[]}", // 중복
+            "{\"index\":2,\"status\":",                            // 잘린 JSON
+            "{\"index\":2,\"status\":\"MAYBE\",\"tags\":[]}",     // 알 수 없는 status
+            "{\"index\":2,\"status\":\"GOOD\",\"tags\":\"검\"}"     // tags 가 배열이 아님
+    })
+    @DisplayName("매칭되지 않은 아이템만 단건 요청으로 다시 검수한다")
+    void fallsBackToSingleInspectionForUnmatchedItem(String secondLine) throws Exception {
+        // given
+        List<ItemDto> items = List.of(item(1), item(2), item(3));
+        givenBatchResponse("{\"index\":1,\"status\":\"GOOD\",\"tags\":[\"1번\"]}\n"
+                + secondLine + "\n"
+                + "{\"index\":3,\"status\":\"GOOD\",\"tags\":[\"3번\"]}");
+
+        // when
+        List<AutoInspectionResult> results = inspectBatch(items);
+
+        // then
+        assertThat(results).extracting(result -> result.getTags()[0]).containsExactly("1번", "단건", "3번");
+        verify(chatGptClient, times(1)).getResultForContentWithPolicyAsync(anyString(), any(ChatPolicy.class));
+        verify(chatGptClient).getResultForContentWithPolicyAsync(eq("[무기] 아이템2 - 설명2"), any(ChatPolicy.class));
+    }
+
+    @Test
+    @DisplayName("아이템이 하나면 배치 프롬프트 대신 단건 요청으로 검수한다")
+    void singleItemUsesSinglePrompt() throws Exception {
+        // when
+        List<AutoInspectionResult> results = inspectBatch(List.of(item(1)));
+
+        // then
+        assertThat(results).extracting(AutoInspectionResult::getStatus).containsExactly("BAD");
+        verify(chatGptClient, never()).getResultForContentWithPolicyAsync(anyString(), any(ChatPolicy.class), anyInt());
+    }
+
+    private void givenBatchResponse(String response) {
+        given(chatGptClient.getResultForContentWithPolicyAsync(anyString(), any(ChatPolicy.class), anyInt()))
+                .willReturn(CompletableFuture.completedFuture(response));
+    }
+
+    private List<AutoInspectionResult> inspectBatch(List<ItemDto> items) throws Exception {
+        return autoInspectService.inspectBatchAsync(items).get(3, TimeUnit.SECONDS);
+    }
+
+    private static ItemDto item(int number) {
+        ItemDto item = new ItemDto();
+        item.setName("아이템" + number);
+        item.setDescription("설명" + number);
+        item.setCategoryName("무기");
+        return item;
+    }
+}
@@ -0,0 +1,97 @@
+package com.herofactory.inspecteditem.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.herofactory.inspecteditem.dto.AutoInspectionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+class InspectionResultCacheTest {
+    private static final String CONTENT = "[무기] 엑스칼리버 - 전설의 성검";
+
+    private ValueOperations<String, String> valueOperations;
+    private InspectionResultCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        cache = new InspectionResultCache(redisTemplate, new ObjectMapper(), new SimpleMeterRegistry(),
+                true, Duration.ofDays(7), 100);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"GOOD", "BAD"})
+    @DisplayName("태그가 있는 GOOD / BAD 결과는 캐시한다")
+    void cachesValidResult(String status) {
+        // when
+        cache.put(CONTENT, result(status, new String[]{"태그"}));
+
+        // then
+        assertThat(cache.find(CONTENT)).get().extracting(AutoInspectionResult::getStatus).isEqualTo(status);
+        verify(valueOperations).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "MAYBE", "good"})
+    @DisplayName("알 수 없는 status 는 캐시하지 않는다")
+    void skipsUnknownStatus(String status) {
+        // when
+        cache.put(CONTENT, result(status, new String[]{"태그"}));
+
+        // then
+        assertThat(cache.find(CONTENT)).isEmpty();
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("tags 가 없거나 결과가 null 이면 캐시하지 않는다")
+    void skipsMissingTagsOrResult() {
+        // when
+        cache.put(CONTENT, result("GOOD", null));
+        cache.put(CONTENT, null);
+
+        // then
+        assertThat(cache.find(CONTENT)).isEmpty();
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("대소문자/공백만 다른 본문은 다른 항목으로 취급한다")
+    void keysByRawContent() {
+        // given
+        cache.put(CONTENT, result("GOOD", new String[]{}));
+        cache.put("[무기] EXCALIBUR", result("BAD", new String[]{"금칙어"}));
+
+        // when & then
+        assertThat(cache.find(CONTENT)).isPresent();
+        assertThat(cache.find("[무기] excalibur")).isEmpty();
+        assertThat(cache.find("[무기]  엑스칼리버 - 전설의 성검")).isEmpty();
+        assertThat(cache.find("[무기] 엑스칼리버 - 전설의 성검 ")).isEmpty();
+    }
+
+    private static AutoInspectionResult result(String status, String[] tags) {
+        AutoInspectionResult result = new AutoInspectionResult();
+        result.setStatus(status);
+        result.setTags(tags);
+        return result;
+    }
+}
@@ -0,0 +1,202 @@
+package com.herofactory.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(10)
+class KeyOrderedBatchProcessorTest {
+    private static final String TOPIC = "item-events";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 key 의 레코드는 앞 레코드가 끝난 뒤 순서대로 처리한다")
+    void sameKeyRecordsRunInOrder() throws Exception {
+        // given: 앞 레코드일수록 오래 걸림
+        KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(8);
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "a"), record(1, "a"), record(2, "a"));
+        List<Long> completed = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        KeyOrderedBatchProcessor.Result result = processor.process(records, record -> CompletableFuture.runAsync(() -> {
+            sleep(100 - record.offset() * 40);
+            completed.add(record.offset());
+        }, executor));
+
+        // then
+        assertThat(result.failed()).isFalse();
+        assertThat(completed).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("다른 key 의 레코드는 동시에 처리한다")
+    void differentKeysRunConcurrently() throws Exception {
+        // given: 두 레코드가 동시에 진행 중이어야만 latch 를 통과
+        KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(8);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // when
+        KeyOrderedBatchProcessor.Result result = processor.process(List.of(record(0, "a"), record(1, "b")),
+                record -> CompletableFuture.runAsync(() -> {
+                    bothStarted.countDown();
+                    if (!await(bothStarted)) {
+                        throw new IllegalStateException("not concurrent");
+                    }
+                }, executor));
+
+        // then
+        assertThat(result).isEqualTo(KeyOrderedBatchProcessor.Result.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("동시에 처리하는 레코드 수는 maxInFlight 를 넘지 않는다")
+    void boundsInFlightRecords() throws Exception {
+        // given
+        KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(2);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            records.add(record(i, "key-" + i));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // when
+        KeyOrderedBatchProcessor.Result result = processor.process(records, record -> CompletableFuture.runAsync(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(30);
+            running.decrementAndGet();
+        }, executor));
+
+        // then
+        assertThat(result.failed()).isFalse();
+        assertThat(maxRunning.get()).isBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("배치 중간에 여러 건이 실패하면 가장 앞 실패 위치와 그 원인을 돌려준다")
+    void reportsLowestFailedIndex() throws Exception {
+        // given: index 3 이 먼저 실패하고 index 1 이 나중에 실패
+        KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(8);
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "a"), record(1, "b"), record(2, "c"), record(3, "d"));
+        IllegalStateException first = new IllegalStateException("index 1");
+
+        // when
+        KeyOrderedBatchProcessor.Result result = processor.process(records, record -> CompletableFuture.runAsync(() -> {
+            if (record.offset() == 1) {
+                sleep(100);
+                throw first;
+            }
+            if (record.offset() == 3) {
+                throw new IllegalStateException("index 3");
+            }
+        }, executor));
+
+        // then
+        assertThat(result.failed()).isTrue();
+        assertThat(result.failedIndex()).isEqualTo(1);
+        assertThat(result.cause()).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("앞 레코드가 실패하면 같은 key 의 뒤 레코드는 실행하지 않고 다른 key 는 계속 처리한다")
+    void skipsSameKeySuccessorsAfterFailure() throws Exception {
+        // given
+        KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(8);
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "a"), record(1, "a"), record(2, "b"));
+        List<Long> handled = Collections.synchronizedList(new ArrayList<>());
+
+        // when
+        KeyOrderedBatchProcessor.Result result = processor.process(records, record -> CompletableFuture.runAsync(() -> {
+            handled.add(record.offset());
+            if (record.offset() == 0) {
+                throw new IllegalStateException("index 0");
+            }
+        }, executor));
+
+        // then
+        assertThat(result.failedIndex()).isEqualTo(0);
+        assertThat(handled).containsExactlyInAnyOrder(0L, 2L);
+    }
+
+    @Test
+    @DisplayName("handler 가 future 를 돌려주기 전에 던진 예외도 해당 레코드의 실패로 처리한다")
+    void handlerExceptionFailsRecord() throws Exception {
+        // given
+        KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(8);
+        List<ConsumerRecord<String, String>> records = List.of(record(0, "a"), record(1, "b"));
+        IllegalArgumentException thrown = new IllegalArgumentException("bad payload");
+
+        // when
+        KeyOrderedBatchProcessor.Result result = processor.process(records, record -> {
+            if (record.offset() == 1) {
+                throw thrown;
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // then
+        assertThat(result.failedIndex()).isEqualTo(1);
+        assertThat(result.cause()).isSameAs(thrown);
+    }
+
+    @Test
+    @DisplayName("실패한 레코드도 자리를 반납해 다음 배치가 막히지 않는다")
+    void releasesPermitsAfterFailures() throws Exception {
+        // given: 자리가 하나뿐이므로 반납되지 않으면 다음 레코드에서 멈춤
+        KeyOrderedBatchProcessor processor = new KeyOrderedBatchProcessor(1);
+        List<ConsumerRecord<String, String>> records = List.of(record(0, "a"), record(1, "a"), record(2, "b"));
+        processor.process(records, record -> {
+            throw new IllegalStateException("fail");
+        });
+
+        // when
+        KeyOrderedBatchProcessor.Result result = processor.process(records,
+                record -> CompletableFuture.runAsync(() -> { }, executor));
+
+        // then
+        assertThat(result.failed()).isFalse();
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, key, "value-" + offset);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
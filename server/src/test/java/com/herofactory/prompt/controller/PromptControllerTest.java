@@ -0,0 +1,111 @@
+package com.herofactory.prompt.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.herofactory.config.security.JwtTokenProvider;
+import com.herofactory.config.security.SecurityConfig;
+import com.herofactory.login.service.TokenService;
+import com.herofactory.prompt.dto.response.PromptResponse;
+import com.herofactory.prompt.entity.enums.PromptStatus;
+import com.herofactory.prompt.service.PromptService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(PromptController.class)
+@Import({SecurityConfig.class, JwtTokenProvider.class})
+@TestPropertySource(properties = {
+        "jwt.secret-key=prompt-controller-test-secret-key-0123456789abcdef",
+        "cors.allowed-origins=http://localhost:3000"
+})
+class PromptControllerTest {
+    private static final String PROMPT_ID = "550e8400-e29b-41d4-a716-446655440000";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private PromptService promptService;
+    @MockBean
+    private TokenService tokenService;
+    @MockBean
+    private KafkaTemplate<String, String> kafkaTemplate;
+    // @EnableJpaAuditing 이 web slice 에서도 JPA 메타모델을 요구함
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    @DisplayName("DeferredResult 결과는 async dispatch 에서 인증 오류 없이 응답된다")
+    void resultIsWrittenOnAsyncDispatch() throws Exception {
+        // given
+        String accessToken = jwtTokenProvider.createAccessToken(1L);
+        given(tokenService.isLogin(accessToken)).willReturn(true);
+        given(promptService.onPromptTerminal(eq(PROMPT_ID), any())).willReturn(() -> { });
+        given(promptService.getPromptStatus(PROMPT_ID)).willReturn(PromptResponse.builder()
+                .promptId(PROMPT_ID)
+                .status(PromptStatus.COMPLETED)
+                .build());
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/api/prompts/{promptId}/result", PROMPT_ID)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.promptId").value(PROMPT_ID))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("처리 중인 프롬프트는 async dispatch 에서 202 로 응답된다")
+    void pendingResultIsAccepted() throws Exception {
+        // given
+        String accessToken = jwtTokenProvider.createAccessToken(1L);
+        given(tokenService.isLogin(accessToken)).willReturn(true);
+        given(promptService.onPromptTerminal(eq(PROMPT_ID), any())).willReturn(() -> { });
+        given(promptService.getPromptStatus(PROMPT_ID)).willReturn(PromptResponse.builder()
+                .promptId(PROMPT_ID)
+                .status(PromptStatus.PROCESSING)
+                .build());
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/api/prompts/{promptId}/result", PROMPT_ID)
+                        .param("waitSeconds", "0")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+    }
+
+    @Test
+    @DisplayName("토큰이 없으면 비동기 처리를 시작하지 않고 401 로 응답한다")
+    void rejectsRequestWithoutToken() throws Exception {
+        mockMvc.perform(get("/api/prompts/{promptId}/result", PROMPT_ID))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isUnauthorized());
+    }
+}
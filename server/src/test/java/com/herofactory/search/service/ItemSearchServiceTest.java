@@ -0,0 +1,142 @@
+package com.herofactory.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.herofactory.inspecteditem.dto.InspectedItemDto;
+import com.herofactory.shop.dto.ItemDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.BulkFailureException.FailureDetails;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+
+class ItemSearchServiceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // bulkIndex 호출마다 넘어온 문서 id
+    private final List<List<String>> bulkRequests = new ArrayList<>();
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @BeforeEach
+    void setUp() {
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+    }
+
+    @Test
+    @DisplayName("maxActions 개씩 나눠 _bulk 요청한다")
+    void splitsByMaxActions() {
+        // given
+        givenBulkSucceeds();
+        ItemSearchService service = service(2, 5_242_880);
+
+        // when
+        service.bulkIndexItems(items(5));
+
+        // then
+        assertThat(bulkRequests).containsExactly(List.of("1", "2"), List.of("3", "4"), List.of("5"));
+        assertThat(documents("indexed")).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("예상 본문 크기가 maxBytes 를 넘으면 나눠 _bulk 요청한다")
+    void splitsByMaxBytes() {
+        // given: 문서 하나가 action 줄 포함 약 230 바이트라 400 바이트에는 한 건씩만 들어감
+        givenBulkSucceeds();
+        ItemSearchService service = service(1_000, 400);
+
+        // when
+        service.bulkIndexItems(items(3));
+
+        // then
+        assertThat(bulkRequests).containsExactly(List.of("1"), List.of("2"), List.of("3"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 404})
+    @DisplayName("문서 자체 오류(4xx)는 재시도하지 않고 건너뛴다")
+    void dropsRejectedDocuments(int status) {
+        // given
+        givenBulkFails(Map.of("2", new FailureDetails(status, "mapper_parsing_exception")));
+        ItemSearchService service = service(1_000, 5_242_880);
+
+        // when
+        service.bulkIndexItems(items(3));
+
+        // then
+        assertThat(documents("indexed")).isEqualTo(2);
+        assertThat(documents("rejected")).isEqualTo(1);
+        assertThat(documents("retryable")).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {429, 500, 503})
+    @DisplayName("429 / 5xx 로 실패한 문서가 있으면 예외로 전체 재시도를 요청한다")
+    void failsOnRetryableErrors(int status) {
+        // given: 두 번째 요청의 한 건만 실패
+        given(elasticsearchOperations.bulkIndex(anyList(), any(BulkOptions.class), any(IndexCoordinates.class)))
+                .willReturn(List.of())
+                .willThrow(new BulkFailureException("bulk failed",
+                        Map.of("3", new FailureDetails(status, "es_rejected_execution_exception"))));
+        ItemSearchService service = service(2, 5_242_880);
+
+        // when & then
+        assertThatThrownBy(() -> service.bulkIndexItems(items(4)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("1 of 4");
+        assertThat(documents("indexed")).isEqualTo(3);
+        assertThat(documents("retryable")).isEqualTo(1);
+    }
+
+    private ItemSearchService service(int maxActions, long maxBytes) {
+        return new ItemSearchService(elasticsearchOperations, meterRegistry, maxActions, maxBytes);
+    }
+
+    private void givenBulkSucceeds() {
+        given(elasticsearchOperations.bulkIndex(anyList(), any(BulkOptions.class), any(IndexCoordinates.class)))
+                .willAnswer(invocation -> {
+                    List<IndexQuery> queries = invocation.getArgument(0);
+                    bulkRequests.add(queries.stream().map(IndexQuery::getId).toList());
+                    return List.of();
+                });
+    }
+
+    private void givenBulkFails(Map<String, FailureDetails> failures) {
+        given(elasticsearchOperations.bulkIndex(anyList(), any(BulkOptions.class), any(IndexCoordinates.class)))
+                .willThrow(new BulkFailureException("bulk failed", failures));
+    }
+
+    private double documents(String result) {
+        Counter counter = meterRegistry.find("elasticsearch.bulk.documents").tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static List<InspectedItemDto> items(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(number -> {
+                    ItemDto item = new ItemDto();
+                    item.setId((long) number);
+                    item.setName("아이템" + number);
+                    item.setDescription("설명" + number);
+                    item.setCategoryName("무기");
+                    return InspectedItemDto.generate(item, List.of("태그"));
+                })
+                .toList();
+    }
+}